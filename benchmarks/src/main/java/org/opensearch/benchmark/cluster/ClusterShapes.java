@@ -0,0 +1,150 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.benchmark.cluster;
+
+import org.opensearch.Version;
+import org.opensearch.cluster.metadata.AliasMetadata;
+import org.opensearch.cluster.metadata.core.AbstractIndexMetadata;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.node.DiscoveryNodeRole;
+import org.opensearch.common.UUIDs;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.transport.TransportAddress;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Builds deterministic, synthetic cluster shapes so that every benchmark measures the same data for a given number of indices.
+ * The shapes are meant to resemble real clusters: a handful of shards per index, an allocation filter on a fraction of the
+ * indices, a few aliases, a small mapping and a populated set of in-sync allocation ids.
+ */
+public final class ClusterShapes {
+
+    private static final long SEED = 0x5EEDL;
+
+    private static final String[] ZONES = new String[] { "zone-a", "zone-b", "zone-c" };
+
+    private ClusterShapes() {}
+
+    /**
+     * Returns the name of the index with the given ordinal.
+     */
+    public static String indexName(int ordinal) {
+        return String.format(Locale.ROOT, "logs-application-%06d", ordinal);
+    }
+
+    /**
+     * Returns the index settings of a synthetic index.
+     */
+    public static Settings indexSettings(int ordinal, Random random) {
+        Settings.Builder builder = Settings.builder()
+            .put(AbstractIndexMetadata.SETTING_VERSION_CREATED, Version.CURRENT)
+            .put(AbstractIndexMetadata.SETTING_NUMBER_OF_SHARDS, 1 + (ordinal % 5))
+            .put(AbstractIndexMetadata.SETTING_NUMBER_OF_REPLICAS, 1)
+            .put(AbstractIndexMetadata.SETTING_INDEX_UUID, UUIDs.randomBase64UUID(random))
+            .put(AbstractIndexMetadata.SETTING_CREATION_DATE, 1_700_000_000_000L + ordinal)
+            .put(AbstractIndexMetadata.SETTING_INDEX_PROVIDED_NAME, indexName(ordinal))
+            .put("index.refresh_interval", "30s")
+            .put("index.translog.durability", "async");
+        if (ordinal % 4 == 0) {
+            builder.put(AbstractIndexMetadata.INDEX_ROUTING_REQUIRE_GROUP_PREFIX + ".zone", ZONES[ordinal % ZONES.length]);
+        }
+        if (ordinal % 10 == 0) {
+            builder.put(AbstractIndexMetadata.INDEX_ROUTING_EXCLUDE_GROUP_PREFIX + "._ip", "10.0.0." + (ordinal % 250));
+            builder.put(AbstractIndexMetadata.INDEX_ROUTING_INCLUDE_GROUP_PREFIX + ".rack", "rack-" + (ordinal % 16) + ",rack-*");
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a mapping with the given number of fields, every third of which carries a multi-byte description.
+     */
+    public static String mapping(int fieldCount) {
+        StringBuilder mapping = new StringBuilder("{\"_doc\":{\"_routing\":{\"required\":false},\"properties\":{");
+        for (int i = 0; i < fieldCount; i++) {
+            if (i > 0) {
+                mapping.append(',');
+            }
+            mapping.append("\"field_").append(i).append("\":{\"type\":\"").append(i % 2 == 0 ? "keyword" : "long").append('"');
+            if (i % 3 == 0) {
+                mapping.append(",\"meta\":{\"description\":\"champ num\u00e9ro ").append(i).append(" \u2013 donn\u00e9es\"}");
+            }
+            mapping.append('}');
+        }
+        return mapping.append("}}}").toString();
+    }
+
+    /**
+     * Builds the metadata of the synthetic index with the given ordinal.
+     */
+    public static AbstractIndexMetadata<?> indexMetadata(int ordinal, Random random) throws IOException {
+        Settings settings = indexSettings(ordinal, random);
+        AbstractIndexMetadata.Builder builder = AbstractIndexMetadata.builder(indexName(ordinal))
+            .settings(settings)
+            .putMapping(mapping(8 + ordinal % 24));
+        if (ordinal % 3 == 0) {
+            builder.putAlias(AliasMetadata.builder("logs-application").writeIndex(ordinal % 30 == 0));
+        }
+        int numberOfShards = AbstractIndexMetadata.INDEX_NUMBER_OF_SHARDS_SETTING.get(settings);
+        for (int shard = 0; shard < numberOfShards; shard++) {
+            Set<String> allocationIds = new HashSet<>();
+            allocationIds.add(UUIDs.randomBase64UUID(random));
+            allocationIds.add(UUIDs.randomBase64UUID(random));
+            builder.putInSyncAllocationIds(shard, allocationIds);
+            builder.primaryTerm(shard, 1 + random.nextInt(4));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds the metadata of {@code count} synthetic indices.
+     */
+    public static List<AbstractIndexMetadata<?>> indices(int count) throws IOException {
+        Random random = new Random(SEED);
+        List<AbstractIndexMetadata<?>> indices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            indices.add(indexMetadata(i, random));
+        }
+        return indices;
+    }
+
+    /**
+     * Builds {@code count} data nodes spread over zones and racks.
+     */
+    public static List<DiscoveryNode> nodes(int count) throws UnknownHostException {
+        List<DiscoveryNode> nodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Map<String, String> attributes = new HashMap<>();
+            attributes.put("zone", ZONES[i % ZONES.length]);
+            attributes.put("rack", "rack-" + (i % 16));
+            InetAddress address = InetAddress.getByAddress(new byte[] { 10, 0, (byte) (i >> 8), (byte) i });
+            nodes.add(
+                new DiscoveryNode(
+                    "node-" + i,
+                    "node-id-" + i,
+                    new TransportAddress(address, 9300),
+                    attributes,
+                    DiscoveryNodeRole.BUILT_IN_ROLES,
+                    Version.CURRENT
+                )
+            );
+        }
+        return nodes;
+    }
+}
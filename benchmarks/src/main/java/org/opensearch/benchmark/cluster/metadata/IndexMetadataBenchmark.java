@@ -0,0 +1,117 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.benchmark.cluster.metadata;
+
+import org.opensearch.benchmark.cluster.ClusterShapes;
+import org.opensearch.cluster.Diff;
+import org.opensearch.cluster.metadata.core.AbstractIndexMetadata;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures serialization, deserialization, diffing and building of the {@link AbstractIndexMetadata} of a whole cluster.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") // invoked by benchmarking framework
+public class IndexMetadataBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int indexCount;
+
+    private AbstractIndexMetadata<?>[] indices;
+
+    /**
+     * The next version of every index, with a bumped settings version and one changed setting.
+     */
+    private AbstractIndexMetadata<?>[] updatedIndices;
+
+    private AbstractIndexMetadata.Builder[] builders;
+
+    private BytesReference serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<AbstractIndexMetadata<?>> shape = ClusterShapes.indices(indexCount);
+        indices = shape.toArray(new AbstractIndexMetadata<?>[0]);
+        updatedIndices = new AbstractIndexMetadata<?>[indexCount];
+        builders = new AbstractIndexMetadata.Builder[indexCount];
+        for (int i = 0; i < indexCount; i++) {
+            AbstractIndexMetadata<?> indexMetadata = indices[i];
+            updatedIndices[i] = AbstractIndexMetadata.builder(indexMetadata)
+                .settings(Settings.builder().put(indexMetadata.getSettings()).put("index.refresh_interval", "1s"))
+                .settingsVersion(indexMetadata.getSettingsVersion() + 1)
+                .version(indexMetadata.getVersion() + 1)
+                .build();
+            builders[i] = AbstractIndexMetadata.builder(indexMetadata);
+        }
+        serialized = write(indices);
+    }
+
+    private static BytesReference write(AbstractIndexMetadata<?>[] indices) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            for (AbstractIndexMetadata<?> indexMetadata : indices) {
+                indexMetadata.writeTo(out);
+            }
+            return out.bytes();
+        }
+    }
+
+    @Benchmark
+    public BytesReference writeTo() throws IOException {
+        return write(indices);
+    }
+
+    @Benchmark
+    public void readFrom(Blackhole bh) throws IOException {
+        try (StreamInput in = serialized.streamInput()) {
+            for (int i = 0; i < indexCount; i++) {
+                bh.consume(AbstractIndexMetadata.readFrom(in));
+            }
+        }
+    }
+
+    @Benchmark
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void diff(Blackhole bh) {
+        for (int i = 0; i < indexCount; i++) {
+            Diff<?> diff = ((AbstractIndexMetadata) updatedIndices[i]).diff(indices[i]);
+            bh.consume(diff);
+        }
+    }
+
+    @Benchmark
+    public void build(Blackhole bh) {
+        for (AbstractIndexMetadata.Builder builder : builders) {
+            bh.consume(builder.build());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.benchmark.cluster.node;
+
+import org.opensearch.benchmark.cluster.ClusterShapes;
+import org.opensearch.cluster.metadata.core.AbstractIndexMetadata;
+import org.opensearch.cluster.node.DiscoveryNode;
+import org.opensearch.cluster.node.DiscoveryNodeFilters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DiscoveryNodeFilters#match(DiscoveryNode)} for the require, include and exclude filters of every index of a cluster
+ * against a set of nodes, the way allocation deciders evaluate them.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") // invoked by benchmarking framework
+public class DiscoveryNodeFiltersBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int indexCount;
+
+    @Param({ "10" })
+    public int nodeCount;
+
+    private DiscoveryNodeFilters[] filters;
+
+    private DiscoveryNode[] nodes;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<DiscoveryNodeFilters> allFilters = new ArrayList<>();
+        for (AbstractIndexMetadata<?> indexMetadata : ClusterShapes.indices(indexCount)) {
+            addIfPresent(allFilters, indexMetadata.requireFilters());
+            addIfPresent(allFilters, indexMetadata.includeFilters());
+            addIfPresent(allFilters, indexMetadata.excludeFilters());
+        }
+        filters = allFilters.toArray(new DiscoveryNodeFilters[0]);
+        nodes = ClusterShapes.nodes(nodeCount).toArray(new DiscoveryNode[0]);
+    }
+
+    private static void addIfPresent(List<DiscoveryNodeFilters> filters, DiscoveryNodeFilters filter) {
+        if (filter != null) {
+            filters.add(filter);
+        }
+    }
+
+    @Benchmark
+    public void match(Blackhole bh) {
+        for (DiscoveryNodeFilters filter : filters) {
+            for (DiscoveryNode node : nodes) {
+                bh.consume(filter.match(node));
+            }
+        }
+    }
+}
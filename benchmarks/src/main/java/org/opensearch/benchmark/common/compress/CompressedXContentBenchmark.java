@@ -0,0 +1,76 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.benchmark.common.compress;
+
+import org.opensearch.benchmark.cluster.ClusterShapes;
+import org.opensearch.common.compress.CompressedXContent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the construction of {@link CompressedXContent} from the mappings of a cluster and its {@link CompressedXContent#equals}
+ * against equal but distinct instances, which is what comparing two versions of the same index mapping amounts to.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") // invoked by benchmarking framework
+public class CompressedXContentBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int indexCount;
+
+    private String[] mappings;
+
+    private CompressedXContent[] compressed;
+
+    private CompressedXContent[] copies;
+
+    @Setup
+    public void setUp() throws IOException {
+        mappings = new String[indexCount];
+        compressed = new CompressedXContent[indexCount];
+        copies = new CompressedXContent[indexCount];
+        for (int i = 0; i < indexCount; i++) {
+            mappings[i] = ClusterShapes.mapping(8 + i % 24);
+            compressed[i] = new CompressedXContent(mappings[i]);
+            copies[i] = new CompressedXContent(mappings[i]);
+        }
+    }
+
+    @Benchmark
+    public void construct(Blackhole bh) throws IOException {
+        for (String mapping : mappings) {
+            bh.consume(new CompressedXContent(mapping));
+        }
+    }
+
+    @Benchmark
+    public void equals(Blackhole bh) {
+        for (int i = 0; i < indexCount; i++) {
+            bh.consume(compressed[i].equals(copies[i]));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.benchmark.common.io.stream;
+
+import org.opensearch.benchmark.cluster.ClusterShapes;
+import org.opensearch.common.UUIDs;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link StreamInput#readString()} and {@link org.opensearch.core.common.io.stream.StreamOutput#writeString(String)} on the
+ * strings a serialized cluster state is made of: index names, setting keys and UUIDs (ASCII) as well as multi-byte text.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") // invoked by benchmarking framework
+public class StringStreamBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int indexCount;
+
+    @Param({ "ascii", "multibyte" })
+    public String text;
+
+    private String[] strings;
+
+    private BytesReference serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(indexCount);
+        strings = new String[indexCount];
+        for (int i = 0; i < indexCount; i++) {
+            switch (text) {
+                case "ascii":
+                    strings[i] = i % 2 == 0 ? ClusterShapes.indexName(i) : UUIDs.randomBase64UUID(random);
+                    break;
+                case "multibyte":
+                    strings[i] = "\u00edndice-donn\u00e9es-" + i + "-\u7d22\u5f15-" + UUIDs.randomBase64UUID(random);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown text [" + text + "]");
+            }
+        }
+        serialized = write(strings);
+    }
+
+    private static BytesReference write(String[] strings) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            for (String string : strings) {
+                out.writeString(string);
+            }
+            return out.bytes();
+        }
+    }
+
+    @Benchmark
+    public BytesReference writeString() throws IOException {
+        return write(strings);
+    }
+
+    @Benchmark
+    public void readString(Blackhole bh) throws IOException {
+        try (StreamInput in = serialized.streamInput()) {
+            for (int i = 0; i < indexCount; i++) {
+                bh.consume(in.readString());
+            }
+        }
+    }
+}
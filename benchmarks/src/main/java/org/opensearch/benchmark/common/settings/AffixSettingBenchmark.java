@@ -0,0 +1,65 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.benchmark.common.settings;
+
+import org.opensearch.benchmark.cluster.ClusterShapes;
+import org.opensearch.cluster.metadata.core.AbstractIndexMetadata;
+import org.opensearch.common.settings.Settings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link org.opensearch.common.settings.Setting.AffixSetting#getAsMap(Settings)} as used to build the allocation filters of
+ * every index when its metadata is built.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") // invoked by benchmarking framework
+public class AffixSettingBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int indexCount;
+
+    private Settings[] settings;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(indexCount);
+        settings = new Settings[indexCount];
+        for (int i = 0; i < indexCount; i++) {
+            settings[i] = ClusterShapes.indexSettings(i, random);
+        }
+    }
+
+    @Benchmark
+    public void getAsMap(Blackhole bh) {
+        for (Settings indexSettings : settings) {
+            bh.consume(AbstractIndexMetadata.INDEX_ROUTING_REQUIRE_GROUP_SETTING.getAsMap(indexSettings));
+            bh.consume(AbstractIndexMetadata.INDEX_ROUTING_INCLUDE_GROUP_SETTING.getAsMap(indexSettings));
+            bh.consume(AbstractIndexMetadata.INDEX_ROUTING_EXCLUDE_GROUP_SETTING.getAsMap(indexSettings));
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.benchmark.common.settings;
+
+import org.opensearch.benchmark.cluster.ClusterShapes;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Settings#writeSettingsToStream} and {@link Settings#readSettingsFromStream} for the index settings of a cluster.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") // invoked by benchmarking framework
+public class SettingsStreamBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int indexCount;
+
+    private Settings[] settings;
+
+    private BytesReference serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(indexCount);
+        settings = new Settings[indexCount];
+        for (int i = 0; i < indexCount; i++) {
+            settings[i] = ClusterShapes.indexSettings(i, random);
+        }
+        serialized = write(settings);
+    }
+
+    private static BytesReference write(Settings[] settings) throws IOException {
+        try (BytesStreamOutput out = new BytesStreamOutput()) {
+            for (Settings indexSettings : settings) {
+                Settings.writeSettingsToStream(indexSettings, out);
+            }
+            return out.bytes();
+        }
+    }
+
+    @Benchmark
+    public BytesReference writeSettingsToStream() throws IOException {
+        return write(settings);
+    }
+
+    @Benchmark
+    public void readSettingsFromStream(Blackhole bh) throws IOException {
+        try (StreamInput in = serialized.streamInput()) {
+            for (int i = 0; i < indexCount; i++) {
+                bh.consume(Settings.readSettingsFromStream(in));
+            }
+        }
+    }
+}
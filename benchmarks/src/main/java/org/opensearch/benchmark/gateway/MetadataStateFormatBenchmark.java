@@ -0,0 +1,126 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.benchmark.gateway;
+
+import org.opensearch.benchmark.cluster.ClusterShapes;
+import org.opensearch.cluster.metadata.core.AbstractIndexMetadata;
+import org.opensearch.common.xcontent.json.JsonXContent;
+import org.opensearch.common.xcontent.smile.SmileXContent;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.xcontent.DeprecationHandler;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContent;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.gateway.MetadataStateFormat;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the formats the {@link AbstractIndexMetadata} of a cluster can be persisted with by {@link MetadataStateFormat}: JSON, the
+ * default SMILE profile and the metadata SMILE profile, which the gateway uses. Writing reports the size of the serialized state as the
+ * {@code stateBytes} counter, and parsing measures the time to read the state back.
+ */
+@Fork(2)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@SuppressWarnings("unused") // invoked by benchmarking framework
+public class MetadataStateFormatBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int indexCount;
+
+    @Param({ "json", "smile", "metadata_smile" })
+    public String format;
+
+    private XContent xContent;
+
+    private AbstractIndexMetadata<?>[] indices;
+
+    private byte[][] serialized;
+
+    /**
+     * The size of the serialized state of all indices, reported next to the time it took to write it.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class StateSize {
+        public long stateBytes;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        xContent = switch (format) {
+            case "json" -> JsonXContent.jsonXContent;
+            case "smile" -> SmileXContent.smileXContent;
+            case "metadata_smile" -> SmileXContent.metadataSmileXContent;
+            default -> throw new IllegalArgumentException("unknown format [" + format + "]");
+        };
+        List<AbstractIndexMetadata<?>> shape = ClusterShapes.indices(indexCount);
+        indices = shape.toArray(new AbstractIndexMetadata<?>[0]);
+        serialized = new byte[indexCount][];
+        for (int i = 0; i < indexCount; i++) {
+            serialized[i] = write(indices[i]);
+        }
+    }
+
+    private byte[] write(AbstractIndexMetadata<?> indexMetadata) throws IOException {
+        // the same content as the body of a state file
+        try (XContentBuilder builder = XContentBuilder.builder(xContent)) {
+            builder.startObject();
+            AbstractIndexMetadata.FORMAT.toXContent(builder, indexMetadata);
+            builder.endObject();
+            return BytesReference.toBytes(BytesReference.bytes(builder));
+        }
+    }
+
+    @Benchmark
+    public void write(StateSize size, Blackhole bh) throws IOException {
+        long stateBytes = 0;
+        for (AbstractIndexMetadata<?> indexMetadata : indices) {
+            final byte[] bytes = write(indexMetadata);
+            stateBytes += bytes.length;
+            bh.consume(bytes);
+        }
+        size.stateBytes = stateBytes;
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) throws IOException {
+        for (byte[] bytes : serialized) {
+            try (
+                XContentParser parser = xContent.createParser(
+                    NamedXContentRegistry.EMPTY,
+                    DeprecationHandler.THROW_UNSUPPORTED_OPERATION,
+                    bytes
+                )
+            ) {
+                bh.consume(AbstractIndexMetadata.FORMAT.fromXContent(parser));
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.benchmark.gateway;
+
+import org.opensearch.OpenSearchCorruptionException;
+import org.opensearch.common.util.io.IOUtils;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+import org.opensearch.gateway.IncrementalStateWriter;
+import org.opensearch.gateway.MetadataStateFormat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Checks that {@link MetadataStateFormat} detects corrupted state files and falls back to the previous generation. Every check writes
+ * two generations into a fresh directory, keeps the older one around as if the node crashed before deleting it, corrupts the latest one
+ * and verifies that reading the latest one fails with an {@link OpenSearchCorruptionException} and that loading the state returns the
+ * older one. The corruptions are truncations, a flipped bit at every byte of the file, invalid header and footer magic numbers and
+ * trailing garbage. It also checks that an {@link IncrementalStateWriter} that crashed before committing its manifest loads the
+ * previously committed collection.
+ * <p>
+ * Exits with a non-zero status if any check fails, run it with {@code ./gradlew -p benchmarks stateCorruptionCheck}.
+ */
+public final class MetadataStateFormatCorruptionCheck {
+
+    private static final String OLD_STATE = "old-state";
+    private static final String NEW_STATE = "new-state";
+
+    // the layout of a state file: a header of two ints and a byte, and a footer of an int and a long
+    private static final int HEADER_LENGTH = Integer.BYTES + Integer.BYTES + Byte.BYTES;
+    private static final int FOOTER_LENGTH = Integer.BYTES + Long.BYTES;
+
+    static final MetadataStateFormat<String> FORMAT = new MetadataStateFormat<String>("state-") {
+        @Override
+        public void toXContent(XContentBuilder builder, String state) throws IOException {
+            builder.field("value", state);
+        }
+
+        @Override
+        public String fromXContent(XContentParser parser) throws IOException {
+            if (parser.nextToken() != XContentParser.Token.START_OBJECT
+                || parser.nextToken() != XContentParser.Token.FIELD_NAME
+                || "value".equals(parser.currentName()) == false
+                || parser.nextToken() != XContentParser.Token.VALUE_STRING) {
+                throw new IllegalStateException("unexpected state content");
+            }
+            final String value = parser.text();
+            if (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+                throw new IllegalStateException("unexpected state content");
+            }
+            return value;
+        }
+    };
+
+    private final List<String> failures = new ArrayList<>();
+    private int checks;
+
+    private MetadataStateFormatCorruptionCheck() {}
+
+    public static void main(String[] args) throws IOException {
+        final MetadataStateFormatCorruptionCheck check = new MetadataStateFormatCorruptionCheck();
+        check.run();
+        System.out.println("ran " + check.checks + " state corruption checks, " + check.failures.size() + " failed");
+        for (String failure : check.failures) {
+            System.out.println("FAILED: " + failure);
+        }
+        if (check.failures.isEmpty() == false) {
+            System.exit(1);
+        }
+    }
+
+    private void run() throws IOException {
+        roundTrip();
+        leftoverTemporaryFile();
+
+        final int size = stateFileSize();
+        for (int length : new int[] { 0, 1, HEADER_LENGTH, HEADER_LENGTH + FOOTER_LENGTH - 1, size / 2, size - 1 }) {
+            corruption("truncated to [" + length + "] bytes", file -> truncate(file, length));
+        }
+        for (int position = 0; position < size; position++) {
+            final int bytePosition = position;
+            final int bit = position % Byte.SIZE;
+            corruption("bit [" + bit + "] flipped at byte [" + bytePosition + "]", file -> flipBit(file, bytePosition, bit));
+        }
+        corruption("invalid header magic", file -> overwriteInt(file, 0, 0x0BADC0DE));
+        corruption("invalid footer magic", file -> overwriteInt(file, Files.size(file) - FOOTER_LENGTH, 0x0BADC0DE));
+        corruption("trailing garbage", file -> {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                channel.write(ByteBuffer.wrap(new byte[] { 42 }));
+            }
+        });
+
+        noValidGeneration();
+        uncommittedIncrementalWrite();
+    }
+
+    /**
+     * The state reads back, and writing a new generation removes the older one.
+     */
+    private void roundTrip() throws IOException {
+        check("round trip", dir -> {
+            expect(FORMAT.writeGeneration(OLD_STATE, dir) == 0, "the first generation is 0");
+            expect(OLD_STATE.equals(FORMAT.loadLatestState(NamedXContentRegistry.EMPTY, dir)), "the state reads back");
+            expect(FORMAT.writeGeneration(NEW_STATE, dir) == 1, "the second generation is 1");
+            expect(NEW_STATE.equals(FORMAT.loadLatestState(NamedXContentRegistry.EMPTY, dir)), "the latest state reads back");
+            expect(Files.exists(dir.resolve(FORMAT.getStateFileName(0))) == false, "the older generation is deleted");
+        });
+    }
+
+    /**
+     * A temporary file left behind by a write that crashed is ignored by reads and doesn't prevent the next write.
+     */
+    private void leftoverTemporaryFile() throws IOException {
+        check("leftover temporary file", dir -> {
+            FORMAT.writeGeneration(OLD_STATE, dir);
+            final Path tmpFile = dir.resolve(FORMAT.getStateFileName(1) + ".tmp");
+            Files.write(tmpFile, new byte[] { 1, 2, 3 });
+            expect(OLD_STATE.equals(FORMAT.loadLatestState(NamedXContentRegistry.EMPTY, dir)), "the temporary file is ignored");
+            FORMAT.writeGeneration(NEW_STATE, dir);
+            expect(NEW_STATE.equals(FORMAT.loadLatestState(NamedXContentRegistry.EMPTY, dir)), "the next generation is written");
+            expect(Files.exists(tmpFile) == false, "the temporary file is cleaned up");
+        });
+    }
+
+    /**
+     * Corrupts the latest of two generations with the given corruption and checks that it is detected.
+     */
+    private void corruption(String description, Corruption corruption) throws IOException {
+        check(description, dir -> {
+            final Path latest = writeTwoGenerations(dir);
+            corruption.apply(latest);
+            expectCorrupted(latest);
+            final String state = FORMAT.loadLatestState(NamedXContentRegistry.EMPTY, dir);
+            expect(OLD_STATE.equals(state), "loading falls back to the older generation");
+        });
+    }
+
+    /**
+     * Loading fails rather than returning no state when no generation can be read.
+     */
+    private void noValidGeneration() throws IOException {
+        check("no valid generation", dir -> {
+            FORMAT.writeGeneration(OLD_STATE, dir);
+            flipBit(dir.resolve(FORMAT.getStateFileName(0)), HEADER_LENGTH, 0);
+            try {
+                FORMAT.loadLatestState(NamedXContentRegistry.EMPTY, dir);
+                expect(false, "loading fails");
+            } catch (OpenSearchCorruptionException e) {
+                // expected
+            }
+        });
+    }
+
+    /**
+     * Generations written by an incremental write that crashed before its manifest are ignored, and cleaned up by the next write.
+     */
+    private void uncommittedIncrementalWrite() throws IOException {
+        check("uncommitted incremental write", dir -> {
+            incrementalWriter(dir).write(List.of("a:1", "b:1"));
+            // a write that crashed before its manifest, leaving a new generation of an entry and a new entry behind
+            FORMAT.writeGenerationKeepingOlder("a:2", dir.resolve("a"));
+            FORMAT.writeGenerationKeepingOlder("c:1", dir.resolve("c"));
+            final IncrementalStateWriter<String> writer = incrementalWriter(dir);
+            final Map<String, String> loaded = writer.load(NamedXContentRegistry.EMPTY);
+            expect(Map.of("a", "a:1", "b", "b:1").equals(loaded), "the committed collection is loaded");
+            expect(writer.write(List.of("a:1")) == 0, "unchanged entries are not written again");
+            expect(Files.exists(dir.resolve("b")) == false, "the removed entry is deleted");
+            expect(Files.exists(dir.resolve("c")) == false, "the uncommitted entry is deleted");
+            expect(Map.of("a", "a:1").equals(incrementalWriter(dir).load(NamedXContentRegistry.EMPTY)), "the removal is committed");
+        });
+    }
+
+    /**
+     * A writer of entries like {@code a:1}, whose id is {@code a} and version {@code 1}.
+     */
+    private static IncrementalStateWriter<String> incrementalWriter(Path dir) {
+        return new IncrementalStateWriter<>(
+            FORMAT,
+            dir,
+            state -> state.substring(0, state.indexOf(':')),
+            state -> Long.parseLong(state.substring(state.indexOf(':') + 1))
+        );
+    }
+
+    private int stateFileSize() throws IOException {
+        final Path dir = Files.createTempDirectory("state-corruption");
+        try {
+            return Math.toIntExact(Files.size(writeTwoGenerations(dir)));
+        } finally {
+            IOUtils.rm(dir);
+        }
+    }
+
+    /**
+     * Writes two generations and restores the older one, which writing the latest one deleted, and returns the latest one.
+     */
+    private static Path writeTwoGenerations(Path dir) throws IOException {
+        FORMAT.writeGeneration(OLD_STATE, dir);
+        final Path older = dir.resolve(FORMAT.getStateFileName(0));
+        final byte[] olderBytes = Files.readAllBytes(older);
+        FORMAT.writeGeneration(NEW_STATE, dir);
+        Files.write(older, olderBytes);
+        return dir.resolve(FORMAT.getStateFileName(1));
+    }
+
+    private static void expectCorrupted(Path stateFile) throws IOException {
+        try {
+            FORMAT.read(NamedXContentRegistry.EMPTY, stateFile);
+        } catch (OpenSearchCorruptionException e) {
+            return;
+        }
+        throw new AssertionError("reading the corrupted state file succeeded");
+    }
+
+    private static void expect(boolean condition, String description) {
+        if (condition == false) {
+            throw new AssertionError("expected that " + description);
+        }
+    }
+
+    private void check(String description, Check check) throws IOException {
+        checks++;
+        final Path dir = Files.createTempDirectory("state-corruption");
+        try {
+            check.run(dir);
+        } catch (AssertionError | Exception e) {
+            failures.add(description + ": " + Objects.toString(e.getMessage(), e.toString()));
+        } finally {
+            IOUtils.rm(dir);
+        }
+    }
+
+    private static void truncate(Path file, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(length);
+        }
+    }
+
+    private static void flipBit(Path file, long position, int bit) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final ByteBuffer buffer = ByteBuffer.allocate(1);
+            channel.read(buffer, position);
+            buffer.put(0, (byte) (buffer.get(0) ^ (1 << bit)));
+            buffer.rewind();
+            channel.write(buffer, position);
+        }
+    }
+
+    private static void overwriteInt(Path file, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, value), position);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        void run(Path dir) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface Corruption {
+        void apply(Path stateFile) throws IOException;
+    }
+}
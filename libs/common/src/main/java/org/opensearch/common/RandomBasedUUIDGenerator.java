@@ -32,23 +32,50 @@
 
 package org.opensearch.common;
 
-import java.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.security.DrbgParameters;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.util.Random;
 
 /**
  * Random UUID generator.
+ * <p>
+ * UUIDs generated without an explicit {@link Random} are drawn from a per-thread DRBG {@link SecureRandom}, so that threads don't
+ * contend on a single synchronized instance. Every per-thread instance is personalized with bytes drawn from the shared
+ * {@link SecureRandomHolder#INSTANCE} and reseeded from it every {@link #RESEED_INTERVAL} UUIDs.
  *
  * @opensearch.internal
  */
 class RandomBasedUUIDGenerator implements UUIDGenerator {
 
+    /**
+     * Number of UUIDs generated by a thread between two reseeds of its random generator.
+     */
+    static final int RESEED_INTERVAL = 1 << 16;
+
+    private static final int UUID_BYTES = 16;
+
+    /**
+     * Length of the Base64 encoding, without padding, of {@link #UUID_BYTES} bytes.
+     */
+    private static final int ENCODED_LENGTH = 22;
+
+    private static final byte[] URL_SAFE_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes(
+        StandardCharsets.US_ASCII
+    );
+
+    private static final ThreadLocal<ThreadState> THREAD_STATE = ThreadLocal.withInitial(ThreadState::new);
+
     /**
      * Returns a Base64 encoded version of a Version 4.0 compatible UUID
      * as defined here: http://www.ietf.org/rfc/rfc4122.txt
      */
     @Override
     public String getBase64UUID() {
-        return getBase64UUID(SecureRandomHolder.INSTANCE);
+        final ThreadState state = THREAD_STATE.get();
+        state.nextBytes();
+        return encode(setVersionAndVariant(state.randomBytes), state.encoded);
     }
 
     /**
@@ -57,12 +84,12 @@ class RandomBasedUUIDGenerator implements UUIDGenerator {
      * as defined here: http://www.ietf.org/rfc/rfc4122.txt
      */
     public String getBase64UUID(Random random) {
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(getUUIDBytes(random));
+        final byte[] randomBytes = new byte[UUID_BYTES];
+        random.nextBytes(randomBytes);
+        return encode(setVersionAndVariant(randomBytes), new byte[ENCODED_LENGTH]);
     }
 
-    private byte[] getUUIDBytes(Random random) {
-        final byte[] randomBytes = new byte[16];
-        random.nextBytes(randomBytes);
+    private static byte[] setVersionAndVariant(byte[] randomBytes) {
         /* Set the version to version 4 (see http://www.ietf.org/rfc/rfc4122.txt)
          * The randomly or pseudo-randomly generated version.
          * The version number is in the most significant 4 bits of the time
@@ -77,4 +104,69 @@ class RandomBasedUUIDGenerator implements UUIDGenerator {
         randomBytes[8] |= 0x80; /* set the variant (MSB is set)*/
         return randomBytes;
     }
+
+    /**
+     * Encodes the {@link #UUID_BYTES} bytes of a UUID with the URL-safe Base64 alphabet and without padding, as
+     * {@code Base64.getUrlEncoder().withoutPadding()} would, using {@code encoded} as the only intermediate buffer.
+     */
+    private static String encode(byte[] uuid, byte[] encoded) {
+        int out = 0;
+        int in = 0;
+        // 15 bytes encode as 5 full groups of 4 chars
+        while (in < 15) {
+            final int bits = (uuid[in++] & 0xff) << 16 | (uuid[in++] & 0xff) << 8 | (uuid[in++] & 0xff);
+            encoded[out++] = URL_SAFE_ALPHABET[(bits >>> 18) & 0x3f];
+            encoded[out++] = URL_SAFE_ALPHABET[(bits >>> 12) & 0x3f];
+            encoded[out++] = URL_SAFE_ALPHABET[(bits >>> 6) & 0x3f];
+            encoded[out++] = URL_SAFE_ALPHABET[bits & 0x3f];
+        }
+        // the last byte encodes as 2 chars
+        final int last = uuid[in] & 0xff;
+        encoded[out++] = URL_SAFE_ALPHABET[last >>> 2];
+        encoded[out++] = URL_SAFE_ALPHABET[(last << 4) & 0x3f];
+        assert out == ENCODED_LENGTH;
+        return new String(encoded, 0, ENCODED_LENGTH, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * The random generator of a thread and the buffers it reuses.
+     */
+    private static final class ThreadState {
+        private final SecureRandom random;
+        private final byte[] randomBytes = new byte[UUID_BYTES];
+        private final byte[] encoded = new byte[ENCODED_LENGTH];
+        private int untilReseed = RESEED_INTERVAL;
+
+        private ThreadState() {
+            this.random = newRandom();
+        }
+
+        private void nextBytes() {
+            if (--untilReseed == 0) {
+                untilReseed = RESEED_INTERVAL;
+                random.setSeed(sharedBytes());
+            }
+            random.nextBytes(randomBytes);
+        }
+
+        private static SecureRandom newRandom() {
+            try {
+                return SecureRandom.getInstance(
+                    "DRBG",
+                    DrbgParameters.instantiation(256, DrbgParameters.Capability.RESEED_ONLY, sharedBytes())
+                );
+            } catch (NoSuchAlgorithmException e) {
+                // providers without DRBG: a default instance per thread still avoids the contention on the shared one
+                final SecureRandom random = new SecureRandom();
+                random.setSeed(sharedBytes());
+                return random;
+            }
+        }
+
+        private static byte[] sharedBytes() {
+            final byte[] bytes = new byte[UUID_BYTES];
+            SecureRandomHolder.INSTANCE.nextBytes(bytes);
+            return bytes;
+        }
+    }
 }
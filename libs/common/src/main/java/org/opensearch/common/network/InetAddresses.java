@@ -200,6 +200,145 @@ public class InetAddresses {
         return rawBytes.array();
     }
 
+    /**
+     * Parses the IP address in the given range of chars into the given buffer of at least 16 bytes, without allocating. IPv4 addresses
+     * and IPv4-mapped IPv6 addresses are written as their 4 bytes, like {@link InetAddress#getByAddress(byte[])} does, any other IPv6
+     * address as its 16 bytes. The same strings as with {@link #ipStringToBytes(String)} are accepted, including a trailing scope id.
+     *
+     * @return the number of bytes of the address, 4 or 16, or {@code -1} if the chars are not an IP string literal
+     */
+    public static int parseAddress(CharSequence chars, int from, int to, byte[] dest) {
+        if (from >= to) {
+            return -1;
+        }
+        int end = to;
+        boolean hasColon = false;
+        for (int i = from; i < to; i++) {
+            final char c = chars.charAt(i);
+            if (c == ':') {
+                hasColon = true;
+            } else if (c == '%') {
+                if (hasColon == false || i == to - 1) {
+                    return -1;
+                }
+                end = i; // Everything after a '%' is ignored (it's a Scope ID)
+                break;
+            }
+        }
+        if (hasColon == false) {
+            return parseIPv4(chars, from, end, dest, 0) ? IPV4_PART_COUNT : -1;
+        }
+        if (parseIPv6(chars, from, end, dest) == false) {
+            return -1;
+        }
+        for (int i = 0; i < 10; i++) {
+            if (dest[i] != 0) {
+                return 2 * IPV6_PART_COUNT;
+            }
+        }
+        if (dest[10] == (byte) 0xff && dest[11] == (byte) 0xff) {
+            System.arraycopy(dest, 12, dest, 0, IPV4_PART_COUNT);
+            return IPV4_PART_COUNT;
+        }
+        return 2 * IPV6_PART_COUNT;
+    }
+
+    private static boolean parseIPv4(CharSequence chars, int from, int to, byte[] dest, int offset) {
+        int part = 0;
+        int i = from;
+        while (part < IPV4_PART_COUNT) {
+            final int start = i;
+            int octet = 0;
+            for (; i < to && i - start < 3; i++) {
+                final int digit = chars.charAt(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    break;
+                }
+                octet = octet * 10 + digit;
+            }
+            // Disallow leading zeroes, like parseOctet does
+            if (i == start || octet > 255 || (chars.charAt(start) == '0' && i - start > 1)) {
+                return false;
+            }
+            dest[offset + part++] = (byte) octet;
+            if (part < IPV4_PART_COUNT) {
+                if (i >= to || chars.charAt(i) != '.') {
+                    return false;
+                }
+                i++;
+            }
+        }
+        return i == to;
+    }
+
+    private static boolean parseIPv6(CharSequence chars, int from, int to, byte[] dest) {
+        int length = 0;
+        int skipAt = -1;
+        int i = from;
+        if (chars.charAt(i) == ':') {
+            // ^: requires ^::
+            if (i + 1 >= to || chars.charAt(i + 1) != ':') {
+                return false;
+            }
+            skipAt = 0;
+            i += 2;
+        }
+        while (i < to) {
+            if (length == 2 * IPV6_PART_COUNT) {
+                return false;
+            }
+            final int start = i;
+            int hextet = 0;
+            for (; i < to && i - start < 4; i++) {
+                final int digit = Character.digit(chars.charAt(i), 16);
+                if (digit < 0) {
+                    break;
+                }
+                hextet = (hextet << 4) | digit;
+            }
+            if (i < to && chars.charAt(i) == '.') {
+                // an embedded IPv4 address ends the string
+                if (length > 2 * IPV6_PART_COUNT - IPV4_PART_COUNT || parseIPv4(chars, start, to, dest, length) == false) {
+                    return false;
+                }
+                length += IPV4_PART_COUNT;
+                break;
+            }
+            if (i == start) {
+                return false;
+            }
+            dest[length++] = (byte) (hextet >>> 8);
+            dest[length++] = (byte) hextet;
+            if (i < to) {
+                if (chars.charAt(i) != ':') {
+                    return false;
+                }
+                i++;
+                if (i < to && chars.charAt(i) == ':') {
+                    if (skipAt >= 0) {
+                        return false; // Can't have more than one ::
+                    }
+                    skipAt = length;
+                    i++;
+                } else if (i == to) {
+                    return false; // :$ requires ::$
+                }
+            }
+        }
+        if (skipAt < 0) {
+            return length == 2 * IPV6_PART_COUNT;
+        }
+        // If we found a ::, then we must have skipped at least one part.
+        if (length > 2 * IPV6_PART_COUNT - 2) {
+            return false;
+        }
+        final int tail = length - skipAt;
+        final int tailStart = 2 * IPV6_PART_COUNT - tail;
+        System.arraycopy(dest, skipAt, dest, tailStart, tail);
+        Arrays.fill(dest, skipAt, tailStart, (byte) 0);
+        return true;
+    }
+
     private static short parseHextet(String ipPart) {
         // Note: we already verified that this string contains only hex digits.
         int hextet = Integer.parseInt(ipPart, 16);
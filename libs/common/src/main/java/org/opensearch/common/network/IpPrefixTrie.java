@@ -0,0 +1,226 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.common.network;
+
+import java.util.Arrays;
+
+/**
+ * An immutable binary trie of IPv4 and IPv6 prefixes, built from exact addresses and CIDR ranges, that tells whether an address falls
+ * into any of them. A lookup walks at most one node per bit of the address, 32 for IPv4 and 128 for IPv6, regardless of the number of
+ * prefixes, and works on the raw address bytes so that it doesn't allocate.
+ * <p>
+ * IPv4-mapped IPv6 addresses are treated as the IPv4 address they map, like {@link java.net.InetAddress} does.
+ *
+ * @opensearch.internal
+ */
+public final class IpPrefixTrie {
+
+    private static final int IPV4_ROOT = 0;
+    private static final int IPV6_ROOT = 1;
+    // no node points back to a root, so a child of 0 means that there is no child
+    private static final int NO_CHILD = 0;
+
+    private static final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[16]);
+
+    // the children of node n are at 2 * n for a 0 bit and at 2 * n + 1 for a 1 bit
+    private final int[] children;
+    // whether the path to the node is one of the prefixes, in which case all addresses below match
+    private final boolean[] terminal;
+    private final int size;
+
+    private IpPrefixTrie(int[] children, boolean[] terminal, int size) {
+        this.children = children;
+        this.terminal = terminal;
+        this.size = size;
+    }
+
+    /**
+     * Returns whether the address in the first {@code length} bytes of the given array, 4 for IPv4 and 16 for IPv6, falls into any of
+     * the prefixes of this trie.
+     */
+    public boolean contains(byte[] address, int length) {
+        if (length != 4 && length != 16) {
+            throw new IllegalArgumentException("IP addresses must have 4 or 16 bytes but got [" + length + "]");
+        }
+        int node = length == 4 ? IPV4_ROOT : IPV6_ROOT;
+        if (terminal[node]) {
+            return true;
+        }
+        final int bits = length * Byte.SIZE;
+        for (int bit = 0; bit < bits; bit++) {
+            node = children[2 * node + ((address[bit >>> 3] >>> (7 - (bit & 7))) & 1)];
+            if (node == NO_CHILD) {
+                return false;
+            } else if (terminal[node]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the given address falls into any of the prefixes of this trie.
+     */
+    public boolean contains(byte[] address) {
+        return contains(address, address.length);
+    }
+
+    /**
+     * Parses the given IP string literal with {@link InetAddresses#parseAddress} and returns whether it falls into any of the prefixes
+     * of this trie. Returns {@code false} if the chars are not an IP string literal.
+     */
+    public boolean containsAddress(CharSequence address) {
+        final byte[] bytes = scratch.get();
+        final int length = InetAddresses.parseAddress(address, 0, address.length(), bytes);
+        return length > 0 && contains(bytes, length);
+    }
+
+    /**
+     * Returns the number of prefixes that were added to this trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the given value is an IP string literal or a range in CIDR notation that can be added with
+     * {@link Builder#add(CharSequence)}.
+     */
+    public static boolean isAddressOrCidr(CharSequence value) {
+        return parsePrefix(value, scratch.get()) >= 0;
+    }
+
+    /**
+     * Parses an IP string literal or a CIDR range into the given buffer of at least 16 bytes. Returns the length of the address and the
+     * length of the prefix, which is the full address length for an exact address, packed by {@link #encode}, or {@code -1} if the value
+     * is neither.
+     */
+    private static int parsePrefix(CharSequence value, byte[] dest) {
+        int slash = -1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '/') {
+                slash = i;
+                break;
+            }
+        }
+        if (slash < 0) {
+            final int length = InetAddresses.parseAddress(value, 0, value.length(), dest);
+            return length < 0 ? -1 : encode(length, length * Byte.SIZE);
+        }
+        final int length = InetAddresses.parseAddress(value, 0, slash, dest);
+        if (length < 0 || slash == value.length() - 1 || value.length() - slash > 4) {
+            return -1;
+        }
+        if (length == 4) {
+            // like InetAddresses#parseCidr, an IPv6-mapped IPv4 address would make the prefix length ambiguous
+            for (int i = 0; i < slash; i++) {
+                if (value.charAt(i) == ':') {
+                    return -1;
+                }
+            }
+        }
+        int prefixLength = 0;
+        for (int i = slash + 1; i < value.length(); i++) {
+            final int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            prefixLength = prefixLength * 10 + digit;
+        }
+        if (prefixLength > length * Byte.SIZE) {
+            return -1;
+        }
+        return encode(length, prefixLength);
+    }
+
+    // the prefix length and whether the address is IPv4, packed into one int
+    private static int encode(int addressLength, int prefixLength) {
+        return (addressLength == 4 ? 1 << 8 : 0) | prefixLength;
+    }
+
+    private static int addressLength(int encoded) {
+        return (encoded & (1 << 8)) != 0 ? 4 : 16;
+    }
+
+    private static int prefixLength(int encoded) {
+        return encoded & 0xFF;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for {@link IpPrefixTrie}.
+     *
+     * @opensearch.internal
+     */
+    public static final class Builder {
+
+        private final byte[] buffer = new byte[16];
+        private int[] children = new int[2 * 16];
+        private boolean[] terminal = new boolean[16];
+        private int nodeCount = 2;
+        private int size;
+
+        private Builder() {}
+
+        /**
+         * Adds the prefix made of the first {@code prefixLength} bits of the given address of 4 or 16 bytes.
+         */
+        public Builder add(byte[] address, int prefixLength) {
+            if (address.length != 4 && address.length != 16) {
+                throw new IllegalArgumentException("IP addresses must have 4 or 16 bytes but got [" + address.length + "]");
+            }
+            if (prefixLength < 0 || prefixLength > address.length * Byte.SIZE) {
+                throw new IllegalArgumentException(
+                    "Illegal prefix length [" + prefixLength + "]. Must be 0-32 for IPv4 ranges, 0-128 for IPv6 ranges"
+                );
+            }
+            addPrefix(address, address.length, prefixLength);
+            return this;
+        }
+
+        /**
+         * Adds the given IP string literal as an exact address, or the given range in CIDR notation.
+         *
+         * @throws IllegalArgumentException if the value is neither an IP string literal nor a CIDR range
+         */
+        public Builder add(CharSequence value) {
+            final int encoded = parsePrefix(value, buffer);
+            if (encoded < 0) {
+                throw new IllegalArgumentException("[" + value + "] is neither an IP address nor a CIDR range");
+            }
+            addPrefix(buffer, addressLength(encoded), prefixLength(encoded));
+            return this;
+        }
+
+        private void addPrefix(byte[] address, int length, int prefixLength) {
+            int node = length == 4 ? IPV4_ROOT : IPV6_ROOT;
+            for (int bit = 0; bit < prefixLength && terminal[node] == false; bit++) {
+                final int slot = 2 * node + ((address[bit >>> 3] >>> (7 - (bit & 7))) & 1);
+                if (children[slot] == NO_CHILD) {
+                    if (nodeCount == terminal.length) {
+                        terminal = Arrays.copyOf(terminal, nodeCount * 2);
+                        children = Arrays.copyOf(children, nodeCount * 4);
+                    }
+                    children[slot] = nodeCount++;
+                }
+                node = children[slot];
+            }
+            // nodes below a terminal node are never visited by lookups, so they are left as they are
+            terminal[node] = true;
+            size++;
+        }
+
+        public IpPrefixTrie build() {
+            return new IpPrefixTrie(Arrays.copyOf(children, 2 * nodeCount), Arrays.copyOf(terminal, nodeCount), size);
+        }
+    }
+}
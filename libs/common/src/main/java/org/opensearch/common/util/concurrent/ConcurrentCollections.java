@@ -75,14 +75,14 @@ public abstract class ConcurrentCollections {
     }
 
     /**
-     * Creates a new CHM with an aggressive concurrency level, aimed at highly updateable long living maps.
+     * Creates a new map of longs with an aggressive concurrency level, aimed at highly updateable long living maps.
      */
     public static <V> ConcurrentMapLong<V> newConcurrentMapLongWithAggressiveConcurrency() {
-        return new ConcurrentHashMapLong<>(ConcurrentCollections.<Long, V>newConcurrentMapWithAggressiveConcurrency());
+        return new StripedConcurrentMapLong<>(aggressiveConcurrencyLevel);
     }
 
     public static <V> ConcurrentMapLong<V> newConcurrentMapLong() {
-        return new ConcurrentHashMapLong<>(ConcurrentCollections.<Long, V>newConcurrentMap());
+        return new StripedConcurrentMapLong<>();
     }
 
     public static <V> Set<V> newConcurrentSet() {
@@ -0,0 +1,461 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.common.util.concurrent;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Thread safe hash map of longs that stores its keys as primitive {@code long}s, so that neither lookups nor entries box them.
+ * <p>
+ * The map is split into stripes that are selected by the hash of the key. Each stripe is an open addressing hash table with linear
+ * probing and backward shift deletion, guarded by a {@link StampedLock}: updates take the write lock of their stripe while lookups are
+ * optimistic reads that only fall back to the read lock if they raced with an update. Like {@link java.util.concurrent.ConcurrentHashMap}
+ * the map doesn't support {@code null} keys or values, and its views and their iterators are weakly consistent.
+ *
+ * @opensearch.internal
+ */
+public final class StripedConcurrentMapLong<T> extends AbstractMap<Long, T> implements ConcurrentMapLong<T> {
+
+    private static final int MAX_STRIPES = 1 << 16;
+
+    private static final int MIN_CAPACITY = 4;
+
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private static final long[] EMPTY_KEYS = new long[0];
+
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    private final Stripe[] stripes;
+
+    private final int stripeMask;
+
+    public StripedConcurrentMapLong() {
+        this(16);
+    }
+
+    /**
+     * @param concurrencyLevel the estimated number of concurrently updating threads, rounded up to a power of two to get the number
+     *                         of stripes
+     */
+    public StripedConcurrentMapLong(int concurrencyLevel) {
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("concurrency level must be positive but was [" + concurrencyLevel + "]");
+        }
+        int numStripes = 1;
+        while (numStripes < concurrencyLevel && numStripes < MAX_STRIPES) {
+            numStripes <<= 1;
+        }
+        stripes = new Stripe[numStripes];
+        for (int i = 0; i < numStripes; i++) {
+            stripes[i] = new Stripe();
+        }
+        stripeMask = numStripes - 1;
+    }
+
+    /** the finalizer of MurmurHash3, so that keys that only differ in their high bits are spread across stripes and slots */
+    static long hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private Stripe stripeFor(long hash) {
+        // slots are selected by the low bits of the hash, stripes by high bits
+        return stripes[(int) (hash >>> 40) & stripeMask];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(long key) {
+        final long hash = hash(key);
+        return (T) stripeFor(hash).get(key, hash);
+    }
+
+    @Override
+    public T put(long key, T value) {
+        Objects.requireNonNull(value);
+        final long hash = hash(key);
+        return stripeFor(hash).put(key, hash, value, false);
+    }
+
+    @Override
+    public T remove(long key) {
+        final long hash = hash(key);
+        return stripeFor(hash).remove(key, hash, null);
+    }
+
+    @Override
+    public T get(Object key) {
+        return key instanceof Long ? get(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public T put(Long key, T value) {
+        return put(key.longValue(), value);
+    }
+
+    @Override
+    public T putIfAbsent(Long key, T value) {
+        Objects.requireNonNull(value);
+        final long hash = hash(key);
+        return stripeFor(hash).put(key, hash, value, true);
+    }
+
+    @Override
+    public T remove(Object key) {
+        return key instanceof Long ? remove(((Long) key).longValue()) : null;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        if (key instanceof Long == false || value == null) {
+            return false;
+        }
+        final long hash = hash((Long) key);
+        return stripeFor(hash).remove((Long) key, hash, value) != null;
+    }
+
+    @Override
+    public boolean replace(Long key, T oldValue, T newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        final long hash = hash(key);
+        return stripeFor(hash).replace(key, hash, oldValue, newValue) != null;
+    }
+
+    @Override
+    public T replace(Long key, T value) {
+        Objects.requireNonNull(value);
+        final long hash = hash(key);
+        return stripeFor(hash).replace(key, hash, null, value);
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size;
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Stripe stripe : stripes) {
+            if (stripe.size != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    @Override
+    public Set<Entry<Long, T>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<Long, T>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return StripedConcurrentMapLong.this.size();
+            }
+
+            @Override
+            public void clear() {
+                StripedConcurrentMapLong.this.clear();
+            }
+        };
+    }
+
+    /**
+     * Iterates over a copy of every stripe in turn, so entries that are added or removed concurrently may or may not be returned.
+     */
+    private final class EntryIterator implements Iterator<Entry<Long, T>> {
+
+        private int stripe = 0;
+        private long[] keys = EMPTY_KEYS;
+        private Object[] values = EMPTY_VALUES;
+        private int slot = 0;
+        private Entry<Long, T> next;
+        private Entry<Long, T> last;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            while (next == null) {
+                if (slot < values.length) {
+                    final Object value = values[slot];
+                    if (value != null) {
+                        next = new WriteThroughEntry(keys[slot], (T) value);
+                    }
+                    slot++;
+                } else if (stripe < stripes.length) {
+                    final Stripe current = stripes[stripe++];
+                    final long stamp = current.lock.readLock();
+                    try {
+                        keys = current.keys.clone();
+                        values = current.values.clone();
+                    } finally {
+                        current.lock.unlockRead(stamp);
+                    }
+                    slot = 0;
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Entry<Long, T> next() {
+            if (hasNext() == false) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = null;
+            return last;
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            StripedConcurrentMapLong.this.remove(last.getKey().longValue());
+            last = null;
+        }
+    }
+
+    /**
+     * An entry whose {@link #setValue} updates the map.
+     */
+    private final class WriteThroughEntry extends SimpleEntry<Long, T> {
+
+        WriteThroughEntry(long key, T value) {
+            super(key, value);
+        }
+
+        @Override
+        public T setValue(T value) {
+            StripedConcurrentMapLong.this.put(getKey().longValue(), value);
+            return super.setValue(value);
+        }
+    }
+
+    /**
+     * An open addressing hash table from primitive longs to non-null values, where a {@code null} value marks an empty slot.
+     */
+    private static final class Stripe {
+
+        private final StampedLock lock = new StampedLock();
+
+        // only modified under the write lock, read optimistically
+        private long[] keys = EMPTY_KEYS;
+        private Object[] values = EMPTY_VALUES;
+        private volatile int size;
+
+        Object get(long key, long hash) {
+            final long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                final long[] keys = this.keys;
+                final Object[] values = this.values;
+                // the arrays may be read in the middle of a resize, in which case they don't match and the read is retried under the lock
+                if (keys.length == values.length) {
+                    final Object value = find(keys, values, key, hash);
+                    if (lock.validate(stamp)) {
+                        return value;
+                    }
+                }
+            }
+            final long readStamp = lock.readLock();
+            try {
+                return find(keys, values, key, hash);
+            } finally {
+                lock.unlockRead(readStamp);
+            }
+        }
+
+        private static Object find(long[] keys, Object[] values, long key, long hash) {
+            final int mask = values.length - 1;
+            int slot = (int) hash & mask;
+            // bounded so that a racy optimistic read always terminates
+            for (int probes = 0; probes <= mask; probes++) {
+                final Object value = values[slot];
+                if (value == null) {
+                    return null;
+                } else if (keys[slot] == key) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return null;
+        }
+
+        private int slotOf(long key, long hash) {
+            final int mask = values.length - 1;
+            int slot = (int) hash & mask;
+            for (int probes = 0; probes <= mask; probes++) {
+                if (values[slot] == null) {
+                    return -1;
+                } else if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T> T put(long key, long hash, T value, boolean onlyIfAbsent) {
+            final long stamp = lock.writeLock();
+            try {
+                if (values.length == 0) {
+                    keys = new long[MIN_CAPACITY];
+                    values = new Object[MIN_CAPACITY];
+                }
+                final int mask = values.length - 1;
+                int slot = (int) hash & mask;
+                while (true) {
+                    final Object existing = values[slot];
+                    if (existing == null) {
+                        keys[slot] = key;
+                        values[slot] = value;
+                        final int newSize = size + 1;
+                        size = newSize;
+                        if (newSize * 4L >= values.length * 3L && values.length < MAX_CAPACITY) {
+                            resize(values.length << 1);
+                        }
+                        return null;
+                    } else if (keys[slot] == key) {
+                        if (onlyIfAbsent == false) {
+                            values[slot] = value;
+                        }
+                        return (T) existing;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void resize(int capacity) {
+            final long[] oldKeys = keys;
+            final Object[] oldValues = values;
+            final long[] newKeys = new long[capacity];
+            final Object[] newValues = new Object[capacity];
+            final int mask = capacity - 1;
+            for (int i = 0; i < oldValues.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = (int) hash(oldKeys[i]) & mask;
+                    while (newValues[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    newKeys[slot] = oldKeys[i];
+                    newValues[slot] = oldValues[i];
+                }
+            }
+            keys = newKeys;
+            values = newValues;
+        }
+
+        /**
+         * Removes the entry of the given key, if its value equals the expected value unless that one is {@code null}.
+         */
+        @SuppressWarnings("unchecked")
+        <T> T remove(long key, long hash, Object expectedValue) {
+            final long stamp = lock.writeLock();
+            try {
+                final int slot = slotOf(key, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                final Object removed = values[slot];
+                if (expectedValue != null && expectedValue.equals(removed) == false) {
+                    return null;
+                }
+                // shift back the entries that follow in the same cluster so that no lookup stops at the hole
+                final int mask = values.length - 1;
+                int hole = slot;
+                for (int next = (hole + 1) & mask; values[next] != null; next = (next + 1) & mask) {
+                    final int ideal = (int) hash(keys[next]) & mask;
+                    if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                        keys[hole] = keys[next];
+                        values[hole] = values[next];
+                        hole = next;
+                    }
+                }
+                values[hole] = null;
+                size = size - 1;
+                return (T) removed;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Replaces the value of the given key, if it is present and its value equals the expected value unless that one is
+         * {@code null}, and returns the previous value.
+         */
+        @SuppressWarnings("unchecked")
+        <T> T replace(long key, long hash, Object expectedValue, T newValue) {
+            final long stamp = lock.writeLock();
+            try {
+                final int slot = slotOf(key, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                final Object existing = values[slot];
+                if (expectedValue != null && expectedValue.equals(existing) == false) {
+                    return null;
+                }
+                values[slot] = newValue;
+                return (T) existing;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+            final long stamp = lock.writeLock();
+            try {
+                keys = EMPTY_KEYS;
+                values = EMPTY_VALUES;
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+    }
+}
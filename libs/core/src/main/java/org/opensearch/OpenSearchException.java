@@ -768,13 +768,7 @@ public class OpenSearchException extends RuntimeException implements Writeable,
      * adds it to the given exception.
      */
     public static <T extends Throwable> T readStackTrace(T throwable, StreamInput in) throws IOException {
-        throwable.setStackTrace(in.readArray(i -> {
-            final String declaringClasss = i.readString();
-            final String fileName = i.readOptionalString();
-            final String methodName = i.readString();
-            final int lineNumber = i.readVInt();
-            return new StackTraceElement(declaringClasss, methodName, fileName, lineNumber);
-        }, StackTraceElement[]::new));
+        throwable.setStackTrace(in.readStackTraceElements());
 
         int numSuppressed = in.readVInt();
         for (int i = 0; i < numSuppressed; i++) {
@@ -791,12 +785,7 @@ public class OpenSearchException extends RuntimeException implements Writeable,
         StreamOutput out,
         Writer<Throwable> exceptionWriter
     ) throws IOException {
-        out.writeArray((o, v) -> {
-            o.writeString(v.getClassName());
-            o.writeOptionalString(v.getFileName());
-            o.writeString(v.getMethodName());
-            o.writeVInt(v.getLineNumber());
-        }, throwable.getStackTrace());
+        out.writeStackTraceElements(throwable.getStackTrace());
         out.writeArray(exceptionWriter, throwable.getSuppressed());
         return throwable;
     }
@@ -120,6 +120,8 @@ public class Version implements Comparable<Version>, ToXContentFragment {
     public static final Version V_3_0_0 = new Version(3000099, org.apache.lucene.util.Version.LUCENE_10_1_0);
     public static final Version V_3_1_0 = new Version(3010099, org.apache.lucene.util.Version.LUCENE_10_2_1);
     public static final Version V_3_2_0 = new Version(3020099, org.apache.lucene.util.Version.LUCENE_10_2_2);
+    /** Not released yet, wire format changes that a 3.2.0 node doesn't understand are gated on this version. */
+    public static final Version V_3_3_0 = new Version(3030099, org.apache.lucene.util.Version.LUCENE_10_2_2);
     public static final Version CURRENT = V_3_2_0;
 
     public static Version fromId(int id) {
@@ -0,0 +1,290 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.core.common.breaker;
+
+import org.opensearch.common.Nullable;
+import org.opensearch.core.common.unit.ByteSizeValue;
+import org.opensearch.core.indices.breaker.BreakerSettings;
+import org.opensearch.core.indices.breaker.HierarchyCircuitBreakerService;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free {@link CircuitBreaker} accounting for memory, optionally checking a parent
+ * {@link HierarchyCircuitBreakerService} whenever it reserves more bytes.
+ * <p>
+ * The bytes reserved against the limit are tracked by a single counter, but threads do not add their estimates to it directly.
+ * Instead every thread is mapped to one of several padded stripes, each holding an allowance of bytes that were reserved ahead of
+ * time. Adding an estimate that fits into the allowance of the stripe of the calling thread is a single compare-and-set on that stripe.
+ * Only when the allowance is exhausted is the reserved counter increased, by the estimate plus a chunk that refills the allowance,
+ * and checked against the limit of this breaker and of its parent. Close to the limit, chunks are no longer reserved and the unused
+ * allowances of all stripes are given back so that the breaker trips on the exact number of used bytes.
+ *
+ * @opensearch.internal
+ */
+public class ChildMemoryCircuitBreaker implements CircuitBreaker {
+
+    /**
+     * Upper bound of the allowance reserved at once for a stripe.
+     */
+    static final long MAX_CHUNK_BYTES = 1 << 20;
+
+    /**
+     * The limit is divided by this number of chunks per stripe, so that at most this fraction of the limit is held in allowances.
+     */
+    private static final int CHUNKS_PER_STRIPE = 64;
+
+    /**
+     * Number of longs between two stripes, so that every stripe sits on its own pair of cache lines.
+     */
+    private static final int PADDING = 16;
+
+    private static final int STRIPES = Math.min(64, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1));
+
+    private final String name;
+    private final Durability durability;
+    @Nullable
+    private final HierarchyCircuitBreakerService parent;
+    private final AtomicLong reserved = new AtomicLong();
+    private final AtomicLongArray allowances = new AtomicLongArray(STRIPES * PADDING);
+    private final AtomicLong trippedCount = new AtomicLong();
+    private volatile Limits limits;
+
+    /**
+     * Creates a breaker with the given settings, checking the given parent when reserving bytes
+     *
+     * @param settings the settings of this breaker
+     * @param parent the parent service, or {@code null} for a breaker without parent
+     */
+    public ChildMemoryCircuitBreaker(BreakerSettings settings, @Nullable HierarchyCircuitBreakerService parent) {
+        this.name = settings.getName();
+        this.durability = settings.getDurability();
+        this.parent = parent;
+        this.limits = new Limits(settings.getLimit(), settings.getOverhead());
+    }
+
+    /**
+     * Method used to trip the breaker, always throws an exception
+     */
+    @Override
+    public void circuitBreak(String fieldName, long bytesNeeded) {
+        final Limits limits = this.limits;
+        final long used = getUsed();
+        this.trippedCount.incrementAndGet();
+        final String message = "["
+            + this.name
+            + "] Data too large, data for ["
+            + fieldName
+            + "]"
+            + " would be ["
+            + (used + bytesNeeded)
+            + "/"
+            + new ByteSizeValue(used + bytesNeeded)
+            + "]"
+            + ", which is larger than the limit of ["
+            + limits.limit
+            + "/"
+            + new ByteSizeValue(limits.limit)
+            + "]";
+        throw new CircuitBreakingException(message, bytesNeeded, limits.limit, durability);
+    }
+
+    /**
+     * Add a number of bytes, tripping the circuit breaker if the aggregated estimates are above the limit. Negative numbers release
+     * bytes and never trip the breaker.
+     *
+     * @param bytes number of bytes to add to the breaker
+     * @return the number of bytes reserved by this breaker, an upper bound of {@link #getUsed()} that is cheap to compute
+     * @throws CircuitBreakingException thrown if the request breaks the limit
+     */
+    @Override
+    public double addEstimateBytesAndMaybeBreak(long bytes, String label) throws CircuitBreakingException {
+        if (bytes <= 0) {
+            release(-bytes);
+            return reserved.get();
+        }
+        final int stripe = stripe();
+        final long allowance = allowances.get(stripe);
+        if (allowance >= bytes && allowances.compareAndSet(stripe, allowance, allowance - bytes)) {
+            return reserved.get();
+        }
+        final Limits limits = this.limits;
+        if (limits.chunk > 0) {
+            if (tryReserve(bytes + limits.chunk, label, limits, false)) {
+                allowances.addAndGet(stripe, limits.chunk);
+                return reserved.get();
+            }
+            // close to the limit, or to the limit of the parent: give back the unused allowances and reserve the exact number of bytes
+            drainAllowances();
+        }
+        if (tryReserve(bytes, label, limits, true) == false) {
+            circuitBreak(label, bytes);
+        }
+        return reserved.get();
+    }
+
+    /**
+     * Adds the given number of bytes to the reserved bytes and checks the limits, rolling back the reservation if any limit is exceeded.
+     *
+     * @param strict whether to trip the parent if its limit is exceeded, rather than returning {@code false}
+     * @return whether the bytes were reserved
+     */
+    private boolean tryReserve(long bytes, String label, Limits limits, boolean strict) {
+        final long newReserved = reserved.addAndGet(bytes);
+        if (limits.limit != -1 && newReserved * limits.overhead > limits.limit) {
+            reserved.addAndGet(-bytes);
+            return false;
+        }
+        if (parent != null) {
+            final long parentBytes = (long) (bytes * limits.overhead);
+            if (strict) {
+                try {
+                    parent.checkParentLimit(parentBytes, label);
+                } catch (CircuitBreakingException e) {
+                    reserved.addAndGet(-bytes);
+                    throw e;
+                }
+            } else if (parent.isParentLimitExceeded(parentBytes)) {
+                reserved.addAndGet(-bytes);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds bytes to the breaker without tripping it. Negative numbers release bytes.
+     *
+     * @param bytes number of bytes to add
+     * @return the number of bytes reserved by this breaker, an upper bound of {@link #getUsed()}
+     */
+    @Override
+    public long addWithoutBreaking(long bytes) {
+        if (bytes < 0) {
+            release(-bytes);
+            return reserved.get();
+        }
+        final long newReserved = reserved.addAndGet(bytes);
+        assert newReserved >= 0 : "reserved bytes can't be negative but were [" + newReserved + "]";
+        return newReserved;
+    }
+
+    /**
+     * Returns released bytes to the allowance of the stripe of the calling thread, and gives back to the reserved counter whatever
+     * exceeds twice the chunk size.
+     */
+    private void release(long bytes) {
+        if (bytes == 0) {
+            return;
+        }
+        final long chunk = limits.chunk;
+        final int stripe = stripe();
+        long allowance = allowances.addAndGet(stripe, bytes);
+        while (allowance > 2 * chunk) {
+            if (allowances.compareAndSet(stripe, allowance, chunk)) {
+                reserved.addAndGet(chunk - allowance);
+                return;
+            }
+            allowance = allowances.get(stripe);
+        }
+    }
+
+    /**
+     * Gives back the unused allowances of all stripes to the reserved counter.
+     */
+    private void drainAllowances() {
+        for (int i = 0; i < STRIPES; i++) {
+            final long allowance = allowances.getAndSet(i * PADDING, 0);
+            if (allowance != 0) {
+                reserved.addAndGet(-allowance);
+            }
+        }
+    }
+
+    private static int stripe() {
+        // the identity hash of a thread is stable for its lifetime
+        final int hash = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+        return ((hash >>> 16) & (STRIPES - 1)) * PADDING;
+    }
+
+    /**
+     * @return the number of aggregated "used" bytes so far, that is the reserved bytes minus the unused allowances
+     */
+    @Override
+    public long getUsed() {
+        long allowance = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            allowance += allowances.get(i * PADDING);
+        }
+        return Math.max(0, reserved.get() - allowance);
+    }
+
+    /**
+     * @return the number of bytes that can be added before the breaker trips
+     */
+    @Override
+    public long getLimit() {
+        return this.limits.limit;
+    }
+
+    /**
+     * @return the constant multiplier the breaker uses for aggregations
+     */
+    @Override
+    public double getOverhead() {
+        return this.limits.overhead;
+    }
+
+    /**
+     * @return the number of times the breaker has been tripped
+     */
+    @Override
+    public long getTrippedCount() {
+        return this.trippedCount.get();
+    }
+
+    /**
+     * @return the name of the breaker
+     */
+    @Override
+    public String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return whether a tripped circuit breaker will reset itself (transient) or requires manual intervention (permanent).
+     */
+    @Override
+    public Durability getDurability() {
+        return this.durability;
+    }
+
+    @Override
+    public void setLimitAndOverhead(long limit, double overhead) {
+        this.limits = new Limits(limit, overhead);
+        // allowances were sized for the previous limit
+        drainAllowances();
+    }
+
+    /**
+     * The limit and overhead of the breaker, updated together, and the allowance chunk derived from them
+     */
+    private static final class Limits {
+        private final long limit;
+        private final double overhead;
+        private final long chunk;
+
+        private Limits(long limit, double overhead) {
+            this.limit = limit;
+            this.overhead = overhead;
+            this.chunk = limit == -1 ? 0 : Math.min(MAX_CHUNK_BYTES, limit / ((long) STRIPES * CHUNKS_PER_STRIPE));
+        }
+    }
+}
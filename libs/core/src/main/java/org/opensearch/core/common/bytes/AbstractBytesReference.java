@@ -35,11 +35,13 @@ import org.apache.lucene.util.BytesRef;
 import org.apache.lucene.util.BytesRefIterator;
 import org.apache.lucene.util.UnicodeUtil;
 import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.util.AsciiUtils;
 import org.opensearch.core.xcontent.XContentBuilder;
 
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.function.ToIntBiFunction;
 
 /**
@@ -279,6 +281,22 @@ public abstract class AbstractBytesReference implements BytesReference {
             assert bytesRead == len : bytesRead + " vs " + len;
         }
 
+        @Override
+        protected String tryReadAsciiString(int charCount) throws IOException {
+            if (length() - offset() < charCount) {
+                return null;
+            }
+            maybeNextSlice();
+            final int start = slice.offset + sliceIndex;
+            // strings that span slices are decoded char by char
+            if (slice.length - sliceIndex < charCount || AsciiUtils.isAscii(slice.bytes, start, charCount) == false) {
+                return null;
+            }
+            final String str = new String(slice.bytes, start, charCount, StandardCharsets.ISO_8859_1);
+            sliceIndex += charCount;
+            return str;
+        }
+
         @Override
         public int read() throws IOException {
             if (offset() >= length()) {
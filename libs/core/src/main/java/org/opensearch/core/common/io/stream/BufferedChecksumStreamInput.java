@@ -85,6 +85,12 @@ public final class BufferedChecksumStreamInput extends FilterStreamInput {
         digest.update(b, offset, len);
     }
 
+    @Override
+    protected String tryReadAsciiString(int charCount) {
+        // strings must be read through readBytes so that they are checksummed
+        return null;
+    }
+
     private static final ThreadLocal<byte[]> buffer = ThreadLocal.withInitial(() -> new byte[8]);
 
     @Override
@@ -31,10 +31,13 @@
 
 package org.opensearch.core.common.io.stream;
 
+import org.opensearch.core.common.util.AsciiUtils;
+
 import java.io.EOFException;
 import java.io.IOException;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Byte Buffer Stream Input
@@ -95,6 +98,24 @@ public class ByteBufferStreamInput extends StreamInput {
         buffer.get(b, offset, len);
     }
 
+    @Override
+    protected String tryReadAsciiString(int charCount) {
+        final int position = buffer.position();
+        if (buffer.remaining() < charCount || AsciiUtils.isAscii(buffer, position, charCount) == false) {
+            return null;
+        }
+        final String str;
+        if (buffer.hasArray()) {
+            str = new String(buffer.array(), buffer.arrayOffset() + position, charCount, StandardCharsets.ISO_8859_1);
+        } else {
+            final byte[] bytes = new byte[charCount];
+            buffer.get(position, bytes);
+            str = new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+        buffer.position(position + charCount);
+        return str;
+    }
+
     @Override
     public short readShort() throws IOException {
         try {
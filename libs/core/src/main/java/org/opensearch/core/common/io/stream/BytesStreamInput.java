@@ -10,9 +10,11 @@ package org.opensearch.core.common.io.stream;
 
 import org.apache.lucene.util.BitUtil;
 import org.apache.lucene.util.BytesRef;
+import org.opensearch.core.common.util.AsciiUtils;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
 /**
  * {@link StreamInput} version of Lucene's {@link org.apache.lucene.store.ByteArrayDataInput}
@@ -106,6 +108,16 @@ public class BytesStreamInput extends StreamInput {
         return limit - pos;
     }
 
+    @Override
+    protected String tryReadAsciiString(int charCount) {
+        if (limit - pos < charCount || AsciiUtils.isAscii(bytes, pos, charCount) == false) {
+            return null;
+        }
+        final String str = new String(bytes, pos, charCount, StandardCharsets.ISO_8859_1);
+        pos += charCount;
+        return str;
+    }
+
     @Override
     protected void ensureCanReadBytes(int length) throws EOFException {
         int available = available();
@@ -60,6 +60,11 @@ public abstract class FilterStreamInput extends StreamInput {
         delegate.readBytes(b, offset, len);
     }
 
+    @Override
+    protected String tryReadAsciiString(int charCount) throws IOException {
+        return delegate.tryReadAsciiString(charCount);
+    }
+
     @Override
     public short readShort() throws IOException {
         return delegate.readShort();
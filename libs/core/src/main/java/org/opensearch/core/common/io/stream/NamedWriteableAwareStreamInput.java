@@ -50,10 +50,33 @@ public class NamedWriteableAwareStreamInput extends FilterStreamInput {
 
     @Override
     public <C extends NamedWriteable> C readNamedWriteable(Class<C> categoryClass) throws IOException {
+        if (namedWriteableOrdinalsEnabled()) {
+            final int marker = readVInt();
+            if (marker != 0) {
+                final int ordinal = marker - 1;
+                return readNamedWriteable(namedWriteableRegistry.getReader(categoryClass, ordinal), ordinal);
+            }
+        }
         String name = readString();
         return readNamedWriteable(categoryClass, name);
     }
 
+    private <C extends NamedWriteable> C readNamedWriteable(Writeable.Reader<? extends C> reader, int ordinal) throws IOException {
+        C c = reader.read(this);
+        if (c == null) {
+            throw new IOException(
+                "Writeable.Reader [" + reader + "] returned null which is not allowed and probably means it screwed up the stream."
+            );
+        }
+        assert namedWriteableRegistry.getName(ordinal).equals(c.getWriteableName()) : c
+            + " claims to have a different name ["
+            + c.getWriteableName()
+            + "] than it was read from ["
+            + namedWriteableRegistry.getName(ordinal)
+            + "].";
+        return c;
+    }
+
     @Override
     public <C extends NamedWriteable> C readNamedWriteable(
         @SuppressWarnings("unused") Class<C> categoryClass,
@@ -83,12 +83,31 @@ public class NamedWriteableRegistry {
      */
     private final Map<Class<?>, Map<String, Writeable.Reader<?>>> registry;
 
+    /**
+     * The distinct registered names, sorted, so that the index of a name is its ordinal. Ordinals only depend on the registered entries
+     * and are therefore the same on every node whose registry has the same {@link #fingerprint()}.
+     */
+    private final String[] names;
+
+    private final Map<String, Integer> ordinals;
+
+    /**
+     * The readers of every category, indexed by the ordinal of their name.
+     */
+    private final Map<Class<?>, Writeable.Reader<?>[]> readersByOrdinal;
+
+    private final long fingerprint;
+
     /**
      * Constructs a new registry from the given entries.
      */
     public NamedWriteableRegistry(List<Entry> entries) {
         if (entries.isEmpty()) {
             registry = Collections.emptyMap();
+            names = new String[0];
+            ordinals = Collections.emptyMap();
+            readersByOrdinal = Collections.emptyMap();
+            fingerprint = fingerprint(entries);
             return;
         }
         entries = new ArrayList<>(entries);
@@ -129,6 +148,71 @@ public class NamedWriteableRegistry {
         registry.put(currentCategory, Collections.unmodifiableMap(readers));
 
         this.registry = Collections.unmodifiableMap(registry);
+
+        this.names = entries.stream().map(entry -> entry.name).distinct().sorted().toArray(String[]::new);
+        final Map<String, Integer> ordinals = new HashMap<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            ordinals.put(names[i], i);
+        }
+        this.ordinals = Collections.unmodifiableMap(ordinals);
+        final Map<Class<?>, Writeable.Reader<?>[]> readersByOrdinal = new HashMap<>(registry.size());
+        final int nameCount = names.length;
+        for (Entry entry : entries) {
+            final Writeable.Reader<?>[] categoryReaders = readersByOrdinal.computeIfAbsent(
+                entry.categoryClass,
+                c -> new Writeable.Reader<?>[nameCount]
+            );
+            categoryReaders[ordinals.get(entry.name)] = entry.reader;
+        }
+        this.readersByOrdinal = Collections.unmodifiableMap(readersByOrdinal);
+        this.fingerprint = fingerprint(entries);
+    }
+
+    /**
+     * Computes a 64-bit FNV-1a hash of the sorted category and name of every entry, so that two registries with the same entries have
+     * the same fingerprint regardless of the order in which the entries were registered.
+     */
+    private static long fingerprint(List<Entry> entries) {
+        final List<String> keys = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            keys.add(entry.categoryClass.getName() + '/' + entry.name);
+        }
+        Collections.sort(keys);
+        long hash = 0xcbf29ce484222325L;
+        for (String key : keys) {
+            for (int i = 0; i < key.length(); i++) {
+                hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+            }
+            // separate the keys so that their boundaries are part of the hash
+            hash = (hash ^ '\n') * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a fingerprint of the registered categories and names. Nodes exchange it to decide whether they can identify named
+     * writeables by ordinal, see {@link StreamOutput#enableNamedWriteableOrdinals(NamedWriteableRegistry, long)}.
+     */
+    public long fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Returns the ordinal of the given name, or {@code -1} if no named writeable is registered under that name.
+     */
+    public int getOrdinal(String name) {
+        final Integer ordinal = ordinals.get(name);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * Returns the name with the given ordinal.
+     */
+    public String getName(int ordinal) {
+        if (ordinal < 0 || ordinal >= names.length) {
+            throw new IllegalArgumentException("Unknown NamedWriteable ordinal [" + ordinal + "]");
+        }
+        return names[ordinal];
     }
 
     /**
@@ -147,4 +231,24 @@ public class NamedWriteableRegistry {
         }
         return reader;
     }
+
+    /**
+     * Returns a reader for a {@link NamedWriteable} object identified by the ordinal of its name, as returned by
+     * {@link #getOrdinal(String)}, and its category.
+     */
+    public <T> Writeable.Reader<? extends T> getReader(Class<T> categoryClass, int ordinal) {
+        Writeable.Reader<?>[] readers = readersByOrdinal.get(categoryClass);
+        if (readers == null) {
+            throw new IllegalArgumentException("Unknown NamedWriteable category [" + categoryClass.getName() + "]");
+        }
+        if (ordinal < 0 || ordinal >= readers.length) {
+            throw new IllegalArgumentException("Unknown NamedWriteable ordinal [" + ordinal + "]");
+        }
+        @SuppressWarnings("unchecked")
+        Writeable.Reader<? extends T> reader = (Writeable.Reader<? extends T>) readers[ordinal];
+        if (reader == null) {
+            throw new IllegalArgumentException("Unknown NamedWriteable [" + categoryClass.getName() + "][" + getName(ordinal) + "]");
+        }
+        return reader;
+    }
 }
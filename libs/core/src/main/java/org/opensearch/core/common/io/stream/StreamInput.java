@@ -78,6 +78,7 @@ import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -115,6 +116,12 @@ import static org.opensearch.OpenSearchException.readStackTrace;
 public abstract class StreamInput extends InputStream {
 
     private Version version = Version.CURRENT;
+    private List<String> stringTable;
+    private int stringTableMaxEntries;
+    private List<StackTraceElement> stackFrameTable;
+    private List<StackTraceElement[]> stackTraceTable;
+    private int stackTraceTableMaxEntries;
+    private boolean namedWriteableOrdinals;
 
     /**
      * The version of the node on the other side of this stream.
@@ -371,6 +378,25 @@ public abstract class StreamInput extends InputStream {
         return new Text(readBytesReference(length));
     }
 
+    /**
+     * Reads an identifier written by {@link StreamOutput#writeUUID(String)}.
+     */
+    public String readUUID() throws IOException {
+        if (getVersion().before(StreamOutput.BINARY_UUID_VERSION)) {
+            return readString();
+        }
+        final int length = readByte();
+        if (length == 0) {
+            return readString();
+        }
+        if (length < 0 || length > StreamOutput.MAX_BINARY_UUID_LENGTH / 4 * 3) {
+            throw new IOException("invalid binary uuid length [" + length + "]");
+        }
+        final byte[] bytes = new byte[length];
+        readBytes(bytes, 0, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
     @Nullable
     public String readOptionalString() throws IOException {
         if (readBoolean()) {
@@ -424,8 +450,196 @@ public abstract class StreamInput extends InputStream {
     // this prevents calling grow for every character since we don't need this
     private CharsRef largeSpare;
 
+    /**
+     * Enables the string table for the remainder of this stream if the node on the other side of the stream supports it. Must be called
+     * at the position where the writing side called {@link StreamOutput#enableStringTable(int)}. While enabled, {@link #readString()}
+     * returns the same instance for every back-reference to a string.
+     *
+     * @return whether the string table was enabled
+     */
+    public boolean enableStringTable() throws IOException {
+        if (stringTable != null) {
+            throw new IllegalStateException("string table is already enabled");
+        }
+        if (getVersion().before(StreamOutput.STRING_TABLE_VERSION)) {
+            return false;
+        }
+        final int maxEntries = readVInt();
+        if (maxEntries <= 0) {
+            throw new IOException("invalid string table size [" + maxEntries + "]");
+        }
+        stringTable = new ArrayList<>();
+        stringTableMaxEntries = maxEntries;
+        return true;
+    }
+
+    /**
+     * Enables the stack trace table for the remainder of this stream if the node on the other side of the stream supports it. Must be
+     * called at the position where the writing side called {@link StreamOutput#enableStackTraceTable(int)}.
+     *
+     * @return whether the stack trace table was enabled
+     */
+    public boolean enableStackTraceTable() throws IOException {
+        if (stackFrameTable != null) {
+            throw new IllegalStateException("stack trace table is already enabled");
+        }
+        if (getVersion().before(StreamOutput.STACK_TRACE_TABLE_VERSION)) {
+            return false;
+        }
+        final int maxEntries = readVInt();
+        if (maxEntries <= 0) {
+            throw new IOException("invalid stack trace table size [" + maxEntries + "]");
+        }
+        stackFrameTable = new ArrayList<>();
+        stackTraceTable = new ArrayList<>();
+        stackTraceTableMaxEntries = maxEntries;
+        return true;
+    }
+
+    /**
+     * Enables named writeable ordinals for the remainder of this stream if the node on the other side of the stream supports them and
+     * its registry matches the registry of this stream. Must be called at the position where the writing side called
+     * {@link StreamOutput#enableNamedWriteableOrdinals(NamedWriteableRegistry, long)}.
+     *
+     * @return whether named writeable ordinals were enabled
+     */
+    public boolean enableNamedWriteableOrdinals() throws IOException {
+        if (namedWriteableOrdinals) {
+            throw new IllegalStateException("named writeable ordinals are already enabled");
+        }
+        if (getVersion().before(StreamOutput.NAMED_WRITEABLE_ORDINALS_VERSION) || readBoolean() == false) {
+            return false;
+        }
+        final long fingerprint = readLong();
+        final NamedWriteableRegistry registry = namedWriteableRegistry();
+        if (registry == null || registry.fingerprint() != fingerprint) {
+            throw new IOException(
+                "named writeable ordinals were written for registry fingerprint ["
+                    + fingerprint
+                    + "] but the registry of this stream has ["
+                    + (registry == null ? "none" : registry.fingerprint())
+                    + "]"
+            );
+        }
+        namedWriteableOrdinals = true;
+        return true;
+    }
+
+    /**
+     * Enables on the given stream the string table, the stack trace table and the named writeable ordinals that are enabled on this
+     * stream, reading their headers from the given stream. This is the reading side of
+     * {@link StreamOutput#enableSameTablesOn(StreamOutput)}. The given stream must have the same {@link NamedWriteableRegistry} as
+     * this one for named writeable ordinals to be enabled on it.
+     */
+    public void enableSameTablesOn(StreamInput other) throws IOException {
+        if (stringTable != null) {
+            other.enableStringTable();
+        }
+        if (stackFrameTable != null) {
+            other.enableStackTraceTable();
+        }
+        if (namedWriteableOrdinals) {
+            other.enableNamedWriteableOrdinals();
+        }
+    }
+
+    /**
+     * Returns whether named writeables are identified by a vInt marker and an optional ordinal on this stream, see
+     * {@link #enableNamedWriteableOrdinals()}.
+     */
+    protected boolean namedWriteableOrdinalsEnabled() {
+        return namedWriteableOrdinals;
+    }
+
+    /**
+     * Reads the frames of a stack trace written with {@link StreamOutput#writeStackTraceElements(StackTraceElement[])}.
+     */
+    public StackTraceElement[] readStackTraceElements() throws IOException {
+        if (stackFrameTable == null) {
+            final StackTraceElement[] stackTrace = new StackTraceElement[readArraySize()];
+            for (int i = 0; i < stackTrace.length; i++) {
+                stackTrace[i] = readStackFrame();
+            }
+            return stackTrace;
+        }
+        final int traceMarker = readVInt();
+        if (traceMarker != 0) {
+            if (traceMarker < 0 || traceMarker > stackTraceTable.size()) {
+                throw new IOException(
+                    "invalid stack trace reference [" + (traceMarker - 1) + "], table has [" + stackTraceTable.size() + "] entries"
+                );
+            }
+            return stackTraceTable.get(traceMarker - 1).clone();
+        }
+        final StackTraceElement[] stackTrace = new StackTraceElement[readArraySize()];
+        for (int i = 0; i < stackTrace.length; i++) {
+            final int frameMarker = readVInt();
+            if (frameMarker != 0) {
+                if (frameMarker < 0 || frameMarker > stackFrameTable.size()) {
+                    throw new IOException(
+                        "invalid stack frame reference [" + (frameMarker - 1) + "], table has [" + stackFrameTable.size() + "] entries"
+                    );
+                }
+                stackTrace[i] = stackFrameTable.get(frameMarker - 1);
+            } else {
+                stackTrace[i] = readStackFrame();
+                if (stackFrameTable.size() < stackTraceTableMaxEntries) {
+                    stackFrameTable.add(stackTrace[i]);
+                }
+            }
+        }
+        if (stackTraceTable.size() < stackTraceTableMaxEntries) {
+            stackTraceTable.add(stackTrace.clone());
+        }
+        return stackTrace;
+    }
+
+    private StackTraceElement readStackFrame() throws IOException {
+        final String declaringClass = readString();
+        final String fileName = readOptionalString();
+        final String methodName = readString();
+        final int lineNumber = readVInt();
+        return new StackTraceElement(declaringClass, methodName, fileName, lineNumber);
+    }
+
+    /**
+     * Reads a string of {@code charCount} chars straight from the underlying bytes if these are directly accessible and all ASCII, so
+     * that the string is encoded with a single byte per char. Returns {@code null} without consuming anything otherwise, in which case
+     * the string is decoded char by char. Streams that must see every byte that is read, for instance to checksum it, must return
+     * {@code null}.
+     */
+    protected String tryReadAsciiString(int charCount) throws IOException {
+        return null;
+    }
+
     public String readString() throws IOException {
+        if (stringTable != null) {
+            final int marker = readVInt();
+            if (marker != 0) {
+                if (marker < 0 || marker > stringTable.size()) {
+                    throw new IOException(
+                        "invalid string reference [" + (marker - 1) + "], table has [" + stringTable.size() + "] entries"
+                    );
+                }
+                return stringTable.get(marker - 1);
+            }
+            final String str = readStringInline();
+            if (stringTable.size() < stringTableMaxEntries && str.length() <= StreamOutput.STRING_TABLE_MAX_ENTRY_LENGTH) {
+                stringTable.add(str);
+            }
+            return str;
+        }
+        return readStringInline();
+    }
+
+    private String readStringInline() throws IOException {
         final int charCount = readArraySize();
+        if (charCount > 0) {
+            final String ascii = tryReadAsciiString(charCount);
+            if (ascii != null) {
+                return ascii;
+            }
+        }
         final CharsRef charsRef;
         if (charCount > SMALL_STRING_LIMIT) {
             if (largeSpare == null) {
@@ -53,6 +53,7 @@ import org.opensearch.core.common.io.stream.Writeable.WriteableRegistry;
 import org.opensearch.core.common.io.stream.Writeable.Writer;
 import org.opensearch.core.common.settings.SecureString;
 import org.opensearch.core.common.text.Text;
+import org.opensearch.core.common.util.AsciiUtils;
 import org.opensearch.core.concurrency.OpenSearchRejectedExecutionException;
 import org.opensearch.semver.SemverRange;
 
@@ -105,8 +106,58 @@ public abstract class StreamOutput extends OutputStream {
 
     private static final int MAX_NESTED_EXCEPTION_LEVEL = 100;
 
+    /**
+     * The first version that understands the string table header written by {@link #enableStringTable(int)}.
+     */
+    public static final Version STRING_TABLE_VERSION = Version.V_3_3_0;
+
+    /**
+     * Strings longer than this are always written inline and never enter the string table.
+     */
+    public static final int STRING_TABLE_MAX_ENTRY_LENGTH = 256;
+
+    /**
+     * The first version that understands the stack trace table header written by {@link #enableStackTraceTable(int)}.
+     */
+    public static final Version STACK_TRACE_TABLE_VERSION = Version.V_3_3_0;
+
+    /**
+     * The first version that understands the binary encoding of UUIDs written by {@link #writeUUID(String)}.
+     */
+    public static final Version BINARY_UUID_VERSION = Version.V_3_3_0;
+
+    /**
+     * The first version that understands the named writeable ordinals header written by
+     * {@link #enableNamedWriteableOrdinals(NamedWriteableRegistry, long)}.
+     */
+    public static final Version NAMED_WRITEABLE_ORDINALS_VERSION = Version.V_3_3_0;
+
+    /**
+     * Base64 strings longer than this are always written as strings by {@link #writeUUID(String)}.
+     */
+    static final int MAX_BINARY_UUID_LENGTH = 64;
+
+    private static final byte[] BASE64_URL_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_URL_VALUES, (byte) -1);
+        final String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_URL_VALUES[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
     private Version version = Version.CURRENT;
     private Set<String> features = Collections.emptySet();
+    private Map<String, Integer> stringTable;
+    private int stringTableMaxEntries;
+    private Map<StackTraceElement, Integer> stackFrameTable;
+    private Map<List<StackTraceElement>, Integer> stackTraceTable;
+    private int stackTraceTableMaxEntries;
+    private NamedWriteableRegistry namedWriteableOrdinals;
+    private int maxNestedExceptionLevel = MAX_NESTED_EXCEPTION_LEVEL;
+    private int nestedExceptionLevel;
+    private Throwable rootException;
 
     /**
      * The version of the node on the other side of this stream.
@@ -440,12 +491,213 @@ public abstract class StreamOutput extends OutputStream {
         }
     }
 
+    /**
+     * Enables the string table for the remainder of this stream, if the node on the other side of the stream supports it. While enabled,
+     * every string written with {@link #writeString(String)} is preceded by a vInt marker: {@code 0} means that the string follows inline
+     * and is assigned the next ordinal, any other value {@code n} is a back-reference to the string with ordinal {@code n - 1}. At most
+     * {@code maxEntries} strings of at most {@link #STRING_TABLE_MAX_ENTRY_LENGTH} chars are assigned an ordinal; once the table is
+     * full, new strings are written inline only.
+     * <p>
+     * The reading side must call {@link StreamInput#enableStringTable()} at the same position in the stream.
+     *
+     * @param maxEntries the maximum number of strings kept in the table
+     * @return whether the string table was enabled
+     */
+    public boolean enableStringTable(int maxEntries) throws IOException {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("max entries must be positive but was [" + maxEntries + "]");
+        }
+        if (stringTable != null) {
+            throw new IllegalStateException("string table is already enabled");
+        }
+        if (getVersion().before(STRING_TABLE_VERSION)) {
+            return false;
+        }
+        writeVInt(maxEntries);
+        stringTable = new HashMap<>();
+        stringTableMaxEntries = maxEntries;
+        return true;
+    }
+
+    /**
+     * Enables the stack trace table for the remainder of this stream, if the node on the other side of the stream supports it. While
+     * enabled, {@link #writeStackTraceElements(StackTraceElement[])} writes every stack trace and every frame that was already written
+     * on this stream as a vInt back-reference instead of writing it again, which keeps responses that carry many failures with the same
+     * stack trace small. At most {@code maxEntries} stack traces and as many frames are kept in the table.
+     * <p>
+     * The reading side must call {@link StreamInput#enableStackTraceTable()} at the same position in the stream.
+     *
+     * @param maxEntries the maximum number of stack traces, and of frames, kept in the table
+     * @return whether the stack trace table was enabled
+     */
+    public boolean enableStackTraceTable(int maxEntries) throws IOException {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("max entries must be positive but was [" + maxEntries + "]");
+        }
+        if (stackFrameTable != null) {
+            throw new IllegalStateException("stack trace table is already enabled");
+        }
+        if (getVersion().before(STACK_TRACE_TABLE_VERSION)) {
+            return false;
+        }
+        writeVInt(maxEntries);
+        stackFrameTable = new HashMap<>();
+        stackTraceTable = new HashMap<>();
+        stackTraceTableMaxEntries = maxEntries;
+        return true;
+    }
+
+    /**
+     * Enables named writeable ordinals for the remainder of this stream, if the node on the other side of the stream supports them and
+     * its registry has the same {@link NamedWriteableRegistry#fingerprint()} as the given one, which means that both registries assign
+     * the same ordinals. While enabled, {@link #writeNamedWriteable(NamedWriteable)} writes a vInt marker instead of the name: {@code 0}
+     * means that the name follows, for names that are not registered, any other value {@code n} identifies the name with ordinal
+     * {@code n - 1}. The fingerprint of the other node is typically exchanged when the connection is established.
+     * <p>
+     * The reading side must call {@link StreamInput#enableNamedWriteableOrdinals()} at the same position in the stream.
+     *
+     * @param registry the registry of this node
+     * @param peerFingerprint the fingerprint of the registry of the node on the other side of the stream
+     * @return whether named writeable ordinals were enabled
+     */
+    public boolean enableNamedWriteableOrdinals(NamedWriteableRegistry registry, long peerFingerprint) throws IOException {
+        if (namedWriteableOrdinals != null) {
+            throw new IllegalStateException("named writeable ordinals are already enabled");
+        }
+        if (getVersion().before(NAMED_WRITEABLE_ORDINALS_VERSION)) {
+            return false;
+        }
+        if (registry.fingerprint() != peerFingerprint) {
+            // the registries disagree, keep writing names
+            writeBoolean(false);
+            return false;
+        }
+        writeBoolean(true);
+        writeLong(peerFingerprint);
+        namedWriteableOrdinals = registry;
+        return true;
+    }
+
+    /**
+     * Enables on the given stream the string table, the stack trace table and the named writeable ordinals that are enabled on this
+     * stream, with the same limits, so that content that is written to a separate stream and then embedded into this one, such as a
+     * frame that is encoded in parallel, is encoded like this stream. Every table starts out empty.
+     * <p>
+     * The reading side must call {@link StreamInput#enableSameTablesOn(StreamInput)} on the stream it reads the content from.
+     */
+    public void enableSameTablesOn(StreamOutput other) throws IOException {
+        if (stringTable != null) {
+            other.enableStringTable(stringTableMaxEntries);
+        }
+        if (stackTraceTable != null) {
+            other.enableStackTraceTable(stackTraceTableMaxEntries);
+        }
+        if (namedWriteableOrdinals != null) {
+            other.enableNamedWriteableOrdinals(namedWriteableOrdinals, namedWriteableOrdinals.fingerprint());
+        }
+    }
+
+    /**
+     * Sets how deep causes and suppressed exceptions are written by {@link #writeException(Throwable)}. Exceptions that are nested
+     * deeper are replaced with an {@link IllegalStateException} stating that there are too many nested exceptions.
+     *
+     * @param maxNestedExceptionLevel the maximum nesting level, at most 100 which is also the default
+     */
+    public void setMaxNestedExceptionLevel(int maxNestedExceptionLevel) {
+        if (maxNestedExceptionLevel < 0 || maxNestedExceptionLevel > MAX_NESTED_EXCEPTION_LEVEL) {
+            throw new IllegalArgumentException(
+                "max nested exception level must be between 0 and "
+                    + MAX_NESTED_EXCEPTION_LEVEL
+                    + " but was ["
+                    + maxNestedExceptionLevel
+                    + "]"
+            );
+        }
+        this.maxNestedExceptionLevel = maxNestedExceptionLevel;
+    }
+
+    /**
+     * Writes the frames of a stack trace. When the stack trace table is enabled, the stack trace is preceded by a vInt marker: {@code 0}
+     * means that the frames follow and that the stack trace is assigned the next ordinal, any other value {@code n} is a back-reference
+     * to the stack trace with ordinal {@code n - 1}. Every frame that follows is then preceded by a marker with the same meaning.
+     */
+    public void writeStackTraceElements(StackTraceElement[] stackTrace) throws IOException {
+        if (stackFrameTable == null) {
+            writeVInt(stackTrace.length);
+            for (StackTraceElement frame : stackTrace) {
+                writeStackFrame(frame);
+            }
+            return;
+        }
+        final List<StackTraceElement> key = Arrays.asList(stackTrace);
+        final Integer traceOrdinal = stackTraceTable.get(key);
+        if (traceOrdinal != null) {
+            writeVInt(traceOrdinal + 1);
+            return;
+        }
+        writeVInt(0);
+        if (stackTraceTable.size() < stackTraceTableMaxEntries) {
+            stackTraceTable.put(key, stackTraceTable.size());
+        }
+        writeVInt(stackTrace.length);
+        for (StackTraceElement frame : stackTrace) {
+            final Integer frameOrdinal = stackFrameTable.get(frame);
+            if (frameOrdinal != null) {
+                writeVInt(frameOrdinal + 1);
+            } else {
+                writeVInt(0);
+                if (stackFrameTable.size() < stackTraceTableMaxEntries) {
+                    stackFrameTable.put(frame, stackFrameTable.size());
+                }
+                writeStackFrame(frame);
+            }
+        }
+    }
+
+    private void writeStackFrame(StackTraceElement frame) throws IOException {
+        writeString(frame.getClassName());
+        writeOptionalString(frame.getFileName());
+        writeString(frame.getMethodName());
+        writeVInt(frame.getLineNumber());
+    }
+
     public void writeString(String str) throws IOException {
+        if (stringTable != null) {
+            final Integer ordinal = stringTable.get(str);
+            if (ordinal != null) {
+                writeVInt(ordinal + 1);
+                return;
+            }
+            writeVInt(0);
+            if (stringTable.size() < stringTableMaxEntries && str.length() <= STRING_TABLE_MAX_ENTRY_LENGTH) {
+                stringTable.put(str, stringTable.size());
+            }
+        }
+        writeStringInline(str);
+    }
+
+    private void writeStringInline(String str) throws IOException {
         final int charCount = str.length();
         byte[] buffer = scratch.get();
         int offset = 0;
         writeVInt(charCount);
-        for (int i = 0; i < charCount; i++) {
+        // ASCII fast path, one byte per char, in chunks of the scratch buffer until the first char that needs more bytes
+        int i = 0;
+        while (i < charCount) {
+            final int chunk = Math.min(charCount - i, buffer.length);
+            final int copied = AsciiUtils.encodeAsciiPrefix(str, i, buffer, 0, chunk);
+            i += copied;
+            if (copied < chunk) {
+                offset = copied;
+                break;
+            }
+            writeBytes(buffer, copied);
+        }
+        if (offset > buffer.length - 3) {
+            writeBytes(buffer, offset);
+            offset = 0;
+        }
+        for (; i < charCount; i++) {
             final int c = str.charAt(i);
             if (c <= 0x007F) {
                 buffer[offset++] = ((byte) c);
@@ -468,6 +720,59 @@ public abstract class StreamOutput extends OutputStream {
         writeBytes(buffer, offset);
     }
 
+    /**
+     * Writes an identifier such as an index UUID or an allocation id. Identifiers that are canonical URL-safe Base64 strings without
+     * padding, as generated by {@code UUIDs}, are sent as their raw bytes, 16 bytes instead of 22 chars for a random UUID, and any other
+     * string is sent as is. The identifier can be read with {@link StreamInput#readUUID()}.
+     */
+    public void writeUUID(String uuid) throws IOException {
+        if (getVersion().before(BINARY_UUID_VERSION)) {
+            writeString(uuid);
+            return;
+        }
+        final byte[] buffer = scratch.get();
+        final int length = decodeBase64Url(uuid, buffer);
+        if (length > 0) {
+            writeByte((byte) length);
+            writeBytes(buffer, 0, length);
+        } else {
+            writeByte((byte) 0);
+            writeString(uuid);
+        }
+    }
+
+    /**
+     * Decodes the given string as URL-safe Base64 without padding into the given buffer, if it encodes at most
+     * {@link #MAX_BINARY_UUID_LENGTH} chars and is canonical, that is encoding the decoded bytes gives back the same string.
+     *
+     * @return the number of decoded bytes, or {@code -1} if the string can't be sent as bytes
+     */
+    private static int decodeBase64Url(String str, byte[] buffer) {
+        final int charCount = str.length();
+        if (charCount == 0 || charCount > MAX_BINARY_UUID_LENGTH || (charCount & 3) == 1) {
+            return -1;
+        }
+        int accumulator = 0;
+        int bits = 0;
+        int length = 0;
+        for (int i = 0; i < charCount; i++) {
+            final char c = str.charAt(i);
+            final int value = c < BASE64_URL_VALUES.length ? BASE64_URL_VALUES[c] : -1;
+            if (value < 0) {
+                return -1;
+            }
+            accumulator = (accumulator << 6) | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                buffer[length++] = (byte) (accumulator >>> bits);
+                accumulator &= (1 << bits) - 1;
+            }
+        }
+        // the trailing bits of the last char must be zero, otherwise the bytes would encode a different string
+        return accumulator == 0 ? length : -1;
+    }
+
     public void writeSecureString(SecureString secureStr) throws IOException {
         final byte[] secureStrBytes = CharArrays.toUtf8Bytes(secureStr.getChars());
         try {
@@ -982,15 +1287,26 @@ public abstract class StreamOutput extends OutputStream {
     }
 
     public void writeException(Throwable throwable) throws IOException {
-        writeException(throwable, throwable, 0);
+        // exceptions that serialize themselves write their causes and suppressed exceptions through this method again, in which case
+        // they are nested in the exception that is being written
+        writeException(rootException == null ? throwable : rootException, throwable, nestedExceptionLevel);
     }
 
     private void writeException(Throwable rootException, Throwable throwable, int nestedLevel) throws IOException {
         if (throwable == null) {
             writeBoolean(false);
-        } else if (nestedLevel > MAX_NESTED_EXCEPTION_LEVEL) {
-            assert failOnTooManyNestedExceptions(rootException);
-            writeException(new IllegalStateException("too many nested exceptions"));
+        } else if (nestedLevel > maxNestedExceptionLevel) {
+            assert nestedLevel <= MAX_NESTED_EXCEPTION_LEVEL || failOnTooManyNestedExceptions(rootException);
+            final Throwable previousRootException = this.rootException;
+            final int previousNestedExceptionLevel = this.nestedExceptionLevel;
+            this.rootException = null;
+            this.nestedExceptionLevel = 0;
+            try {
+                writeException(new IllegalStateException("too many nested exceptions"));
+            } finally {
+                this.rootException = previousRootException;
+                this.nestedExceptionLevel = previousNestedExceptionLevel;
+            }
         } else {
             writeBoolean(true);
             boolean writeCause = true;
@@ -1092,7 +1408,16 @@ public abstract class StreamOutput extends OutputStream {
                 }
                 writeVInt(0);
                 writeVInt(OpenSearchException.getId(ex.getClass()));
-                ex.writeTo(this);
+                final Throwable previousRootException = this.rootException;
+                final int previousNestedExceptionLevel = this.nestedExceptionLevel;
+                this.rootException = rootException;
+                this.nestedExceptionLevel = nestedLevel + 1;
+                try {
+                    ex.writeTo(this);
+                } finally {
+                    this.rootException = previousRootException;
+                    this.nestedExceptionLevel = previousNestedExceptionLevel;
+                }
                 return;
             }
             if (writeMessage) {
@@ -1135,7 +1460,15 @@ public abstract class StreamOutput extends OutputStream {
      * Writes a {@link NamedWriteable} to the current stream, by first writing its name and then the object itself
      */
     public void writeNamedWriteable(NamedWriteable namedWriteable) throws IOException {
-        writeString(namedWriteable.getWriteableName());
+        if (namedWriteableOrdinals != null) {
+            final int ordinal = namedWriteableOrdinals.getOrdinal(namedWriteable.getWriteableName());
+            writeVInt(ordinal + 1);
+            if (ordinal < 0) {
+                writeString(namedWriteable.getWriteableName());
+            }
+        } else {
+            writeString(namedWriteable.getWriteableName());
+        }
         namedWriteable.writeTo(this);
     }
 
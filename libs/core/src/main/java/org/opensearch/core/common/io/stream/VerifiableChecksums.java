@@ -0,0 +1,122 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.core.common.io.stream;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.StringHelper;
+import org.opensearch.Version;
+import org.opensearch.common.util.BitMixer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes, caches and combines the checksums of {@link VerifiableWriteable}s.
+ * <p>
+ * The checksum of a single entry is the CRC32 of its {@link VerifiableWriteable#writeVerifiableTo(BufferedChecksumStreamOutput)}
+ * output. Immutable entries compute it once per wire version with a {@link Cache}. The checksum of a collection is then derived from
+ * the cached checksums of its entries, either with {@link #ordered(Map, Writeable.Writer, Version)}, which serializes the keys and entry
+ * checksums in key order, or with {@link #unordered(String, long)}, a commutative hash that can be maintained incrementally by adding the
+ * hashes of new entries and subtracting those of removed ones, so that updating it costs O(changed entries).
+ *
+ * @opensearch.internal
+ */
+public final class VerifiableChecksums {
+
+    private VerifiableChecksums() {}
+
+    /**
+     * Computes the checksum of the given entry by serializing it.
+     */
+    public static long compute(VerifiableWriteable writeable, Version version) throws IOException {
+        try (BufferedChecksumStreamOutput out = newChecksumOutput(version)) {
+            writeable.writeVerifiableTo(out);
+            return out.getChecksum();
+        }
+    }
+
+    /**
+     * Computes the checksum of a collection of entries from the checksums of its entries, in key order. Only the keys are serialized.
+     */
+    public static <K extends Comparable<K>, V extends VerifiableWriteable> long ordered(
+        Map<K, V> entries,
+        Writeable.Writer<K> keyWriter,
+        Version version
+    ) throws IOException {
+        final List<K> keys = new ArrayList<>(entries.keySet());
+        Collections.sort(keys);
+        try (BufferedChecksumStreamOutput out = newChecksumOutput(version)) {
+            out.writeVInt(keys.size());
+            for (K key : keys) {
+                keyWriter.write(out, key);
+                out.writeLong(entries.get(key).getChecksum(version));
+            }
+            return out.getChecksum();
+        }
+    }
+
+    /**
+     * Returns the hash of an entry of a collection. The hash of the collection is the sum of the hashes of its entries, so it does not
+     * depend on the order of the entries and can be updated as entries are added, removed or replaced.
+     *
+     * @param key the key of the entry in the collection
+     * @param checksum the checksum of the entry
+     */
+    public static long unordered(String key, long checksum) {
+        // mix64 is a bijection, so two entries only have the same hash if they have the same checksum and the 32-bit murmur3 hashes of
+        // their keys collide, which unlike String#hashCode collisions (like "Aa" and "BB") can't be found by rearranging a few chars
+        final int keyHash = StringHelper.murmurhash3_x86_32(new BytesRef(key), 0);
+        return BitMixer.mix64(((long) keyHash << 32) | (checksum & 0xFFFFFFFFL));
+    }
+
+    private static BufferedChecksumStreamOutput newChecksumOutput(Version version) {
+        final BufferedChecksumStreamOutput out = new BufferedChecksumStreamOutput(
+            new OutputStreamStreamOutput(OutputStream.nullOutputStream())
+        );
+        out.setVersion(version);
+        return out;
+    }
+
+    /**
+     * Caches the checksum of an immutable {@link VerifiableWriteable} for the last wire version it was requested for.
+     *
+     * @opensearch.internal
+     */
+    public static final class Cache {
+
+        private volatile Entry entry;
+
+        /**
+         * Returns the cached checksum of the given entry for the given version, computing it if needed.
+         */
+        public long get(VerifiableWriteable writeable, Version version) throws IOException {
+            final Entry current = entry;
+            if (current != null && current.version.equals(version)) {
+                return current.checksum;
+            }
+            final long checksum = compute(writeable, version);
+            entry = new Entry(version, checksum);
+            return checksum;
+        }
+
+        private static final class Entry {
+            private final Version version;
+            private final long checksum;
+
+            private Entry(Version version, long checksum) {
+                this.version = version;
+                this.checksum = checksum;
+            }
+        }
+    }
+}
@@ -8,6 +8,8 @@
 
 package org.opensearch.core.common.io.stream;
 
+import org.opensearch.Version;
+
 import java.io.IOException;
 
 /**
@@ -17,4 +19,12 @@ import java.io.IOException;
 public interface VerifiableWriteable extends Writeable {
 
     void writeVerifiableTo(BufferedChecksumStreamOutput out) throws IOException;
+
+    /**
+     * Returns the checksum of the output of {@link #writeVerifiableTo(BufferedChecksumStreamOutput)} for the given version. Immutable
+     * implementations should cache it with a {@link VerifiableChecksums.Cache}.
+     */
+    default long getChecksum(Version version) throws IOException {
+        return VerifiableChecksums.compute(this, version);
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.core.common.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Bulk checks for ASCII content, used by the stream fast paths for strings such as index names, setting keys, node ids and UUIDs
+ * that are almost always pure ASCII and can therefore be copied byte for byte rather than decoded char by char.
+ * <p>
+ * The checks test eight bytes at a time against the high bit of every byte, which the JIT compiles to a handful of instructions
+ * per word.
+ *
+ * @opensearch.internal
+ */
+public final class AsciiUtils {
+
+    private static final VarHandle LONG_HANDLE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private AsciiUtils() {}
+
+    /**
+     * Returns whether the given range of bytes only holds ASCII characters, that is bytes in {@code [0, 0x7F]}.
+     */
+    public static boolean isAscii(byte[] bytes, int offset, int length) {
+        int i = offset;
+        final int end = offset + length;
+        for (final int wordEnd = end - Long.BYTES; i <= wordEnd; i += Long.BYTES) {
+            if (((long) LONG_HANDLE.get(bytes, i) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; i < end; i++) {
+            if (bytes[i] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether the given range of the buffer, at absolute indices, only holds ASCII characters. The position of the buffer is
+     * left untouched.
+     */
+    public static boolean isAscii(ByteBuffer buffer, int index, int length) {
+        if (buffer.hasArray()) {
+            return isAscii(buffer.array(), buffer.arrayOffset() + index, length);
+        }
+        int i = index;
+        final int end = index + length;
+        // the byte order doesn't matter since every byte is tested for the same bit
+        for (final int wordEnd = end - Long.BYTES; i <= wordEnd; i += Long.BYTES) {
+            if ((buffer.getLong(i) & HIGH_BITS) != 0) {
+                return false;
+            }
+        }
+        for (; i < end; i++) {
+            if (buffer.get(i) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copies chars of the given string to the destination, one byte each, for as long as they are ASCII.
+     *
+     * @return the number of chars that were copied, which is less than {@code length} if a non-ASCII char was found
+     */
+    public static int encodeAsciiPrefix(String str, int from, byte[] dest, int destOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            final char c = str.charAt(from + i);
+            if (c > 0x7F) {
+                return i;
+            }
+            dest[destOffset + i] = (byte) c;
+        }
+        return length;
+    }
+}
@@ -92,7 +92,7 @@ public class Index implements Writeable, ToXContentObject {
      */
     public Index(StreamInput in) throws IOException {
         this.name = in.readString();
-        this.uuid = in.readString();
+        this.uuid = in.readUUID();
     }
 
     /**
@@ -164,7 +164,7 @@ public class Index implements Writeable, ToXContentObject {
     @Override
     public void writeTo(final StreamOutput out) throws IOException {
         out.writeString(name);
-        out.writeString(uuid);
+        out.writeUUID(uuid);
     }
 
     @Override
@@ -0,0 +1,96 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.core.indices.breaker;
+
+import org.opensearch.core.common.breaker.CircuitBreaker;
+import org.opensearch.core.common.unit.ByteSizeValue;
+
+import java.util.Objects;
+
+/**
+ * Settings for a {@link CircuitBreaker}
+ *
+ * @opensearch.internal
+ */
+public final class BreakerSettings {
+
+    private final String name;
+    private final long limitBytes;
+    private final double overhead;
+    private final CircuitBreaker.Type type;
+    private final CircuitBreaker.Durability durability;
+
+    /**
+     * Settings of a transient {@link CircuitBreaker.Type#MEMORY memory} breaker
+     *
+     * @param name the name of the breaker
+     * @param limitBytes the limit of the breaker, or {@code -1} for no limit
+     * @param overhead the constant multiplied with the estimated bytes before comparing them to the limit
+     */
+    public BreakerSettings(String name, long limitBytes, double overhead) {
+        this(name, limitBytes, overhead, CircuitBreaker.Type.MEMORY, CircuitBreaker.Durability.TRANSIENT);
+    }
+
+    public BreakerSettings(
+        String name,
+        long limitBytes,
+        double overhead,
+        CircuitBreaker.Type type,
+        CircuitBreaker.Durability durability
+    ) {
+        if (limitBytes < -1) {
+            throw new IllegalArgumentException("limit of breaker [" + name + "] must be >= -1 but was [" + limitBytes + "]");
+        }
+        if (overhead < 0) {
+            throw new IllegalArgumentException("overhead of breaker [" + name + "] must be >= 0 but was [" + overhead + "]");
+        }
+        this.name = Objects.requireNonNull(name);
+        this.limitBytes = limitBytes;
+        this.overhead = overhead;
+        this.type = Objects.requireNonNull(type);
+        this.durability = Objects.requireNonNull(durability);
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public long getLimit() {
+        return this.limitBytes;
+    }
+
+    public double getOverhead() {
+        return this.overhead;
+    }
+
+    public CircuitBreaker.Type getType() {
+        return this.type;
+    }
+
+    public CircuitBreaker.Durability getDurability() {
+        return durability;
+    }
+
+    @Override
+    public String toString() {
+        return "["
+            + this.name
+            + ",type="
+            + this.type.toString()
+            + ",durability="
+            + this.durability.toString()
+            + ",limit="
+            + this.limitBytes
+            + "/"
+            + new ByteSizeValue(this.limitBytes)
+            + ",overhead="
+            + this.overhead
+            + "]";
+    }
+}
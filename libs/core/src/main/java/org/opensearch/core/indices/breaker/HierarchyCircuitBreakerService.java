@@ -0,0 +1,218 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.core.indices.breaker;
+
+import org.opensearch.core.common.breaker.ChildMemoryCircuitBreaker;
+import org.opensearch.core.common.breaker.CircuitBreaker;
+import org.opensearch.core.common.breaker.CircuitBreakingException;
+import org.opensearch.core.common.breaker.NoopCircuitBreaker;
+import org.opensearch.core.common.unit.ByteSizeValue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * CircuitBreakerService that organizes {@link ChildMemoryCircuitBreaker}s below a parent breaker. Every child breaker checks the
+ * parent breaker whenever it reserves more bytes. The parent breaker trips if the total memory exceeds its limit, where the total is
+ * either the real memory usage of the heap or the sum of the bytes accounted by all children, multiplied by their overhead.
+ *
+ * @opensearch.internal
+ */
+public class HierarchyCircuitBreakerService extends CircuitBreakerService {
+
+    private static final MemoryMXBean MEMORY_MX_BEAN = ManagementFactory.getMemoryMXBean();
+
+    private final Map<String, CircuitBreaker> breakers;
+    private final boolean trackRealMemoryUsage;
+    private final LongSupplier realMemoryUsage;
+    private final AtomicLong parentTripCount = new AtomicLong(0);
+    private volatile BreakerSettings parentSettings;
+
+    /**
+     * Creates a service with the given parent and child breakers
+     *
+     * @param parentSettings the settings of the parent breaker
+     * @param childSettings the settings of the child breakers
+     * @param trackRealMemoryUsage whether the parent checks the real memory usage of the heap rather than the accounted memory
+     */
+    public HierarchyCircuitBreakerService(
+        BreakerSettings parentSettings,
+        List<BreakerSettings> childSettings,
+        boolean trackRealMemoryUsage
+    ) {
+        this(parentSettings, childSettings, trackRealMemoryUsage, () -> MEMORY_MX_BEAN.getHeapMemoryUsage().getUsed());
+    }
+
+    HierarchyCircuitBreakerService(
+        BreakerSettings parentSettings,
+        List<BreakerSettings> childSettings,
+        boolean trackRealMemoryUsage,
+        LongSupplier realMemoryUsage
+    ) {
+        super();
+        final Map<String, CircuitBreaker> childCircuitBreakers = new HashMap<>();
+        for (BreakerSettings settings : childSettings) {
+            if (CircuitBreaker.PARENT.equals(settings.getName())) {
+                throw new IllegalArgumentException("child breaker can't be named [" + CircuitBreaker.PARENT + "]");
+            }
+            if (childCircuitBreakers.containsKey(settings.getName())) {
+                throw new IllegalArgumentException("breaker [" + settings.getName() + "] is already registered");
+            }
+            childCircuitBreakers.put(settings.getName(), validateAndCreateBreaker(settings));
+        }
+        this.breakers = Collections.unmodifiableMap(childCircuitBreakers);
+        this.parentSettings = parentSettings;
+        this.trackRealMemoryUsage = trackRealMemoryUsage;
+        this.realMemoryUsage = realMemoryUsage;
+    }
+
+    private CircuitBreaker validateAndCreateBreaker(BreakerSettings settings) {
+        switch (settings.getType()) {
+            case NOOP:
+                return new NoopCircuitBreaker(settings.getName());
+            case MEMORY:
+                return new ChildMemoryCircuitBreaker(settings, this);
+            default:
+                throw new IllegalArgumentException("breaker [" + settings.getName() + "] can't be of type [" + settings.getType() + "]");
+        }
+    }
+
+    @Override
+    public CircuitBreaker getBreaker(String name) {
+        return this.breakers.get(name);
+    }
+
+    /**
+     * Updates the limit and overhead of the parent breaker
+     */
+    public void setParentLimit(long limit, double overhead) {
+        final BreakerSettings current = this.parentSettings;
+        this.parentSettings = new BreakerSettings(
+            CircuitBreaker.PARENT,
+            limit,
+            overhead,
+            CircuitBreaker.Type.PARENT,
+            current.getDurability()
+        );
+    }
+
+    @Override
+    public AllCircuitBreakerStats stats() {
+        final List<CircuitBreakerStats> allStats = new ArrayList<>(this.breakers.size() + 1);
+        // Gather the "estimated" count for the parent breaker by adding the
+        // estimations for each individual breaker
+        for (CircuitBreaker breaker : this.breakers.values()) {
+            allStats.add(stats(breaker.getName()));
+        }
+        // Manually add the parent breaker settings since they aren't part of the breaker map
+        allStats.add(stats(CircuitBreaker.PARENT));
+        return new AllCircuitBreakerStats(allStats.toArray(new CircuitBreakerStats[0]));
+    }
+
+    @Override
+    public CircuitBreakerStats stats(String name) {
+        if (CircuitBreaker.PARENT.equals(name)) {
+            final BreakerSettings settings = this.parentSettings;
+            return new CircuitBreakerStats(
+                CircuitBreaker.PARENT,
+                settings.getLimit(),
+                parentUsed(0L),
+                settings.getOverhead(),
+                parentTripCount.get()
+            );
+        }
+        final CircuitBreaker breaker = this.breakers.get(name);
+        if (breaker == null) {
+            throw new IllegalArgumentException("no circuit breaker registered with name [" + name + "]");
+        }
+        return new CircuitBreakerStats(
+            breaker.getName(),
+            breaker.getLimit(),
+            breaker.getUsed(),
+            breaker.getOverhead(),
+            breaker.getTrippedCount()
+        );
+    }
+
+    /**
+     * Returns the total memory checked against the parent limit, after reserving the given number of bytes
+     */
+    private long parentUsed(long newBytesReserved) {
+        if (this.trackRealMemoryUsage) {
+            return realMemoryUsage.getAsLong() + newBytesReserved;
+        }
+        long parentEstimated = 0;
+        for (CircuitBreaker breaker : this.breakers.values()) {
+            // the bytes reserved by the child are already included in its used bytes
+            parentEstimated += (long) (breaker.getUsed() * breaker.getOverhead());
+        }
+        return parentEstimated;
+    }
+
+    /**
+     * Returns whether reserving the given number of bytes would exceed the parent limit, without tripping the parent breaker
+     */
+    public boolean isParentLimitExceeded(long newBytesReserved) {
+        final long limit = this.parentSettings.getLimit();
+        return limit != -1 && parentUsed(newBytesReserved) > limit;
+    }
+
+    /**
+     * Checks whether the parent breaker has been tripped
+     *
+     * @param newBytesReserved the number of bytes a child breaker just reserved
+     * @param label the label of the reservation
+     * @throws CircuitBreakingException if the parent limit is exceeded
+     */
+    public void checkParentLimit(long newBytesReserved, String label) throws CircuitBreakingException {
+        final BreakerSettings settings = this.parentSettings;
+        final long limit = settings.getLimit();
+        if (limit == -1) {
+            return;
+        }
+        final long totalUsed = parentUsed(newBytesReserved);
+        if (totalUsed > limit) {
+            this.parentTripCount.incrementAndGet();
+            final StringBuilder message = new StringBuilder(
+                "[parent] Data too large, data for ["
+                    + label
+                    + "]"
+                    + " would be ["
+                    + totalUsed
+                    + "/"
+                    + new ByteSizeValue(totalUsed)
+                    + "]"
+                    + ", which is larger than the limit of ["
+                    + limit
+                    + "/"
+                    + new ByteSizeValue(limit)
+                    + "]"
+            );
+            if (this.trackRealMemoryUsage) {
+                message.append(", real usage: [").append(totalUsed - newBytesReserved).append("], new bytes reserved: [");
+                message.append(newBytesReserved).append("]");
+            }
+            message.append(", usages [");
+            String separator = "";
+            for (CircuitBreaker breaker : this.breakers.values()) {
+                message.append(separator).append(breaker.getName()).append('=').append(breaker.getUsed());
+                separator = ", ";
+            }
+            message.append("]");
+            throw new CircuitBreakingException(message.toString(), totalUsed, limit, settings.getDurability());
+        }
+    }
+}
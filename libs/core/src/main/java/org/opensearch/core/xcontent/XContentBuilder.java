@@ -45,13 +45,14 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.file.Path;
 import java.time.ZonedDateTime;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
-import java.util.IdentityHashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
@@ -99,6 +100,9 @@ public final class XContentBuilder implements Closeable, Flushable {
     private static final Map<Class<?>, Writer> WRITERS;
     private static final Map<Class<?>, HumanReadableTransformer> HUMAN_READABLE_TRANSFORMERS;
     private static final Map<Class<?>, Function<Object, Object>> DATE_TRANSFORMERS;
+    private static final ClassValue<ValueWriter> VALUE_WRITERS;
+    private static final ClassDispatch<HumanReadableTransformer> HUMAN_READABLE_TRANSFORMERS_BY_CLASS;
+    private static final ClassDispatch<Function<Object, Object>> DATE_TRANSFORMERS_BY_CLASS;
     static {
         Map<Class<?>, Writer> writers = new HashMap<>();
         writers.put(Boolean.class, (b, v) -> b.value((Boolean) v));
@@ -153,6 +157,16 @@ public final class XContentBuilder implements Closeable, Flushable {
         WRITERS = Collections.unmodifiableMap(writers);
         HUMAN_READABLE_TRANSFORMERS = Collections.unmodifiableMap(humanReadableTransformer);
         DATE_TRANSFORMERS = Collections.unmodifiableMap(dateTransformers);
+
+        final ClassDispatch<Writer> writersByClass = new ClassDispatch<>(WRITERS);
+        VALUE_WRITERS = new ClassValue<>() {
+            @Override
+            protected ValueWriter computeValue(Class<?> type) {
+                return resolveValueWriter(type, writersByClass);
+            }
+        };
+        HUMAN_READABLE_TRANSFORMERS_BY_CLASS = new ClassDispatch<>(HUMAN_READABLE_TRANSFORMERS);
+        DATE_TRANSFORMERS_BY_CLASS = new ClassDispatch<>(DATE_TRANSFORMERS);
     }
 
     /**
@@ -199,6 +213,16 @@ public final class XContentBuilder implements Closeable, Flushable {
      */
     private boolean humanReadable = false;
 
+    /**
+     * The maps, iterables and arrays that are being written, from the outermost to the innermost one. A container is checked
+     * against its ancestors when it starts being written, so that self references are detected during the single write pass.
+     */
+    private Object[] ancestors = NO_ANCESTORS;
+
+    private int ancestorsDepth = 0;
+
+    private static final Object[] NO_ANCESTORS = new Object[0];
+
     /**
      * Constructs a new builder using the provided XContent and an OutputStream. Make sure
      * to call {@link #close()} when the builder is done with.
@@ -759,7 +783,7 @@ public final class XContentBuilder implements Closeable, Flushable {
     public XContentBuilder timeField(String name, String readableName, long value) throws IOException {
         assert name.equals(readableName) == false : "expected raw and readable field names to differ, but they were both: " + name;
         if (humanReadable) {
-            Function<Object, Object> longTransformer = DATE_TRANSFORMERS.get(Long.class);
+            Function<Object, Object> longTransformer = DATE_TRANSFORMERS_BY_CLASS.lookup(Long.class);
             if (longTransformer == null) {
                 throw new IllegalArgumentException("cannot write time value xcontent for unknown value of type Long");
             }
@@ -779,7 +803,7 @@ public final class XContentBuilder implements Closeable, Flushable {
         if (timeValue == null) {
             return nullValue();
         } else {
-            Function<Object, Object> transformer = DATE_TRANSFORMERS.get(timeValue.getClass());
+            Function<Object, Object> transformer = DATE_TRANSFORMERS_BY_CLASS.lookup(timeValue.getClass());
             if (transformer == null) {
                 throw new IllegalArgumentException("cannot write time value xcontent for unknown value of type " + timeValue.getClass());
             }
@@ -830,7 +854,7 @@ public final class XContentBuilder implements Closeable, Flushable {
         if (values == null) {
             return nullValue();
         }
-        return value(Arrays.asList(values), ensureNoSelfReferences);
+        return iterable(values, Arrays.asList(values), ensureNoSelfReferences);
     }
 
     public XContentBuilder value(Object value) throws IOException {
@@ -843,27 +867,92 @@ public final class XContentBuilder implements Closeable, Flushable {
             nullValue();
             return;
         }
-        Writer writer = WRITERS.get(value.getClass());
+        VALUE_WRITERS.get(value.getClass()).write(this, value, ensureNoSelfReferences);
+    }
+
+    /**
+     * Writes values of a given class, resolved once per class by {@link #resolveValueWriter}.
+     */
+    @FunctionalInterface
+    private interface ValueWriter {
+        void write(XContentBuilder builder, Object value, boolean ensureNoSelfReferences) throws IOException;
+    }
+
+    /**
+     * Resolves how values of the given class are written. Writers registered for the exact class come first, then the generic
+     * handling of paths, maps, iterables, arrays, {@link ToXContent} and enums, and lastly writers registered for a superclass or an
+     * interface of the class.
+     */
+    @SuppressWarnings("unchecked")
+    private static ValueWriter resolveValueWriter(Class<?> type, ClassDispatch<Writer> writersByClass) {
+        final Writer writer = WRITERS.get(type);
         if (writer != null) {
-            writer.write(this, value);
-        } else if (value instanceof Path) {
+            return (builder, value, ensureNoSelfReferences) -> writer.write(builder, value);
+        } else if (Path.class.isAssignableFrom(type)) {
             // Path implements Iterable<Path> and causes endless recursion and a StackOverFlow if treated as an Iterable here
-            value((Path) value);
-        } else if (value instanceof Map) {
-            @SuppressWarnings("unchecked")
-            final Map<String, ?> valueMap = (Map<String, ?>) value;
-            map(valueMap, ensureNoSelfReferences, true);
-        } else if (value instanceof Iterable) {
-            value((Iterable<?>) value, ensureNoSelfReferences);
-        } else if (value instanceof Object[]) {
-            values((Object[]) value, ensureNoSelfReferences);
-        } else if (value instanceof ToXContent) {
-            value((ToXContent) value);
-        } else if (value instanceof Enum<?>) {
+            return (builder, value, ensureNoSelfReferences) -> builder.value((Path) value);
+        } else if (Map.class.isAssignableFrom(type)) {
+            return (builder, value, ensureNoSelfReferences) -> builder.map((Map<String, ?>) value, ensureNoSelfReferences, true);
+        } else if (Iterable.class.isAssignableFrom(type)) {
+            return (builder, value, ensureNoSelfReferences) -> builder.value((Iterable<?>) value, ensureNoSelfReferences);
+        } else if (Object[].class.isAssignableFrom(type)) {
+            return (builder, value, ensureNoSelfReferences) -> builder.values((Object[]) value, ensureNoSelfReferences);
+        } else if (ToXContent.class.isAssignableFrom(type)) {
+            return (builder, value, ensureNoSelfReferences) -> builder.value((ToXContent) value);
+        } else if (Enum.class.isAssignableFrom(type)) {
             // Write out the Enum toString
-            value(Objects.toString(value));
-        } else {
+            return (builder, value, ensureNoSelfReferences) -> builder.value(Objects.toString(value));
+        }
+        final Writer inheritedWriter = writersByClass.lookup(type);
+        if (inheritedWriter != null) {
+            return (builder, value, ensureNoSelfReferences) -> inheritedWriter.write(builder, value);
+        }
+        return (builder, value, ensureNoSelfReferences) -> {
             throw new IllegalArgumentException("cannot write xcontent for unknown value of type " + value.getClass());
+        };
+    }
+
+    /**
+     * Caches for every class the entry of a class keyed map that is registered for the class itself or else for its closest superclass
+     * or interface, so that the map and the class hierarchy are only looked at once per class.
+     */
+    private static final class ClassDispatch<T> extends ClassValue<Object> {
+
+        private static final Object NONE = new Object();
+
+        private final Map<Class<?>, T> entries;
+
+        private ClassDispatch(Map<Class<?>, T> entries) {
+            this.entries = entries;
+        }
+
+        @SuppressWarnings("unchecked")
+        T lookup(Class<?> type) {
+            final Object entry = get(type);
+            return entry == NONE ? null : (T) entry;
+        }
+
+        @Override
+        protected Object computeValue(Class<?> type) {
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                final T entry = entries.get(current);
+                if (entry != null) {
+                    return entry;
+                }
+            }
+            final Deque<Class<?>> interfaces = new ArrayDeque<>();
+            for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+                interfaces.addAll(Arrays.asList(current.getInterfaces()));
+            }
+            while (interfaces.isEmpty() == false) {
+                final Class<?> current = interfaces.poll();
+                final T entry = entries.get(current);
+                if (entry != null) {
+                    return entry;
+                }
+                interfaces.addAll(Arrays.asList(current.getInterfaces()));
+            }
+            return NONE;
         }
     }
 
@@ -908,27 +997,39 @@ public final class XContentBuilder implements Closeable, Flushable {
         return map(values, true, false);
     }
 
+    /**
+     * Writes a map that is known not to reference itself, for instance because it was produced by a parser, without checking
+     * its values for self references.
+     */
+    public XContentBuilder acyclicMap(Map<String, ?> values) throws IOException {
+        return map(values, false, true);
+    }
+
     private XContentBuilder map(Map<String, ?> values, boolean ensureNoSelfReferences, boolean writeStartAndEndHeaders) throws IOException {
         if (values == null) {
             return nullValue();
         }
 
-        // checks that the map does not contain references to itself because
-        // iterating over map entries will cause a stackoverflow error
+        // checks that the map is not one of the containers being written because
+        // iterating over map entries would cause a stackoverflow error
         if (ensureNoSelfReferences) {
-            ensureNoSelfReferences(values);
-        }
-
-        if (writeStartAndEndHeaders) {
-            startObject();
+            pushAncestor(values);
         }
-        for (Map.Entry<String, ?> value : values.entrySet()) {
-            field(value.getKey());
-            // pass ensureNoSelfReferences=false as we already performed the check at a higher level
-            unknownValue(value.getValue(), false);
-        }
-        if (writeStartAndEndHeaders) {
-            endObject();
+        try {
+            if (writeStartAndEndHeaders) {
+                startObject();
+            }
+            for (Map.Entry<String, ?> value : values.entrySet()) {
+                field(value.getKey());
+                unknownValue(value.getValue(), ensureNoSelfReferences);
+            }
+            if (writeStartAndEndHeaders) {
+                endObject();
+            }
+        } finally {
+            if (ensureNoSelfReferences) {
+                popAncestor();
+            }
         }
         return this;
     }
@@ -946,17 +1047,27 @@ public final class XContentBuilder implements Closeable, Flushable {
             // treat as single value
             value((Path) values);
         } else {
-            // checks that the iterable does not contain references to itself because
-            // iterating over entries will cause a stackoverflow error
-            if (ensureNoSelfReferences) {
-                ensureNoSelfReferences(values);
-            }
+            iterable(values, values, ensureNoSelfReferences);
+        }
+        return this;
+    }
+
+    private XContentBuilder iterable(Object reference, Iterable<?> values, boolean ensureNoSelfReferences) throws IOException {
+        // checks that the iterable is not one of the containers being written because
+        // iterating over entries would cause a stackoverflow error
+        if (ensureNoSelfReferences) {
+            pushAncestor(reference);
+        }
+        try {
             startArray();
             for (Object value : values) {
-                // pass ensureNoSelfReferences=false as we already performed the check at a higher level
-                unknownValue(value, false);
+                unknownValue(value, ensureNoSelfReferences);
             }
             endArray();
+        } finally {
+            if (ensureNoSelfReferences) {
+                popAncestor();
+            }
         }
         return this;
     }
@@ -975,7 +1086,7 @@ public final class XContentBuilder implements Closeable, Flushable {
         if (humanReadable) {
             field(readableFieldName, Objects.toString(value));
         }
-        HumanReadableTransformer transformer = HUMAN_READABLE_TRANSFORMERS.get(value.getClass());
+        HumanReadableTransformer transformer = HUMAN_READABLE_TRANSFORMERS_BY_CLASS.lookup(value.getClass());
         if (transformer != null) {
             Object rawValue = transformer.rawValue(value);
             field(rawFieldName, rawValue);
@@ -1062,38 +1173,21 @@ public final class XContentBuilder implements Closeable, Flushable {
         }
     }
 
-    private static void ensureNoSelfReferences(Object value) {
-        Iterable<?> it = convert(value);
-        if (it != null) {
-            ensureNoSelfReferences(it, value, Collections.newSetFromMap(new IdentityHashMap<>()));
-        }
-    }
-
-    private static Iterable<?> convert(Object value) {
-        if (value == null) {
-            return null;
+    private void pushAncestor(Object container) {
+        // containers are rarely nested deeply, so a linear scan of the ancestors is cheaper than maintaining an identity set
+        for (int i = 0; i < ancestorsDepth; i++) {
+            if (ancestors[i] == container) {
+                throw new IllegalArgumentException("Iterable object is self-referencing itself");
+            }
         }
-        if (value instanceof Map) {
-            return ((Map<?, ?>) value).values();
-        } else if ((value instanceof Iterable) && (value instanceof Path == false)) {
-            return (Iterable<?>) value;
-        } else if (value instanceof Object[]) {
-            return Arrays.asList((Object[]) value);
-        } else {
-            return null;
+        if (ancestorsDepth == ancestors.length) {
+            ancestors = Arrays.copyOf(ancestors, Math.max(8, ancestorsDepth << 1));
         }
+        ancestors[ancestorsDepth++] = container;
     }
 
-    private static void ensureNoSelfReferences(final Iterable<?> value, Object originalReference, final Set<Object> ancestors) {
-        if (value != null) {
-            if (ancestors.add(originalReference) == false) {
-                throw new IllegalArgumentException("Iterable object is self-referencing itself");
-            }
-            for (Object o : value) {
-                ensureNoSelfReferences(convert(o), o, ancestors);
-            }
-            ancestors.remove(originalReference);
-        }
+    private void popAncestor() {
+        ancestors[--ancestorsDepth] = null;
     }
 
 }
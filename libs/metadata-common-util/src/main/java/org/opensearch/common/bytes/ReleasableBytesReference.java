@@ -0,0 +1,202 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+/*
+ * Licensed to Elasticsearch under one or more contributor
+ * license agreements. See the NOTICE file distributed with
+ * this work for additional information regarding copyright
+ * ownership. Elasticsearch licenses this file to you under
+ * the Apache License, Version 2.0 (the "License"); you may
+ * not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+/*
+ * Modifications Copyright OpenSearch Contributors. See
+ * GitHub history for details.
+ */
+
+package org.opensearch.common.bytes;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
+import org.opensearch.common.lease.Releasable;
+import org.opensearch.common.util.concurrent.AbstractRefCounted;
+import org.opensearch.common.util.concurrent.RefCounted;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * An extension to {@link BytesReference} that requires releasing its content. This
+ * class exists to make it explicit when a bytes reference needs to be released, and when not.
+ * The memory backing the bytes is released once the reference count drops to zero.
+ *
+ * @opensearch.internal
+ */
+public final class ReleasableBytesReference implements RefCounted, Releasable, BytesReference {
+
+    private final BytesReference delegate;
+    private final AbstractRefCounted refCounted;
+
+    public ReleasableBytesReference(BytesReference delegate, Releasable releasable) {
+        this.delegate = delegate;
+        this.refCounted = new AbstractRefCounted("bytes-reference") {
+            @Override
+            protected void closeInternal() {
+                releasable.close();
+            }
+        };
+    }
+
+    /**
+     * Wraps a bytes reference that does not need to be released.
+     */
+    public static ReleasableBytesReference wrap(BytesReference reference) {
+        return new ReleasableBytesReference(reference, () -> {});
+    }
+
+    public int refCount() {
+        return refCounted.refCount();
+    }
+
+    @Override
+    public void incRef() {
+        refCounted.incRef();
+    }
+
+    @Override
+    public boolean tryIncRef() {
+        return refCounted.tryIncRef();
+    }
+
+    @Override
+    public boolean decRef() {
+        return refCounted.decRef();
+    }
+
+    /**
+     * Increments the reference count and returns this instance, to be released separately by the new owner.
+     */
+    public ReleasableBytesReference retain() {
+        refCounted.incRef();
+        return this;
+    }
+
+    @Override
+    public void close() {
+        refCounted.decRef();
+    }
+
+    @Override
+    public byte get(int index) {
+        assert refCount() > 0;
+        return delegate.get(index);
+    }
+
+    @Override
+    public int getInt(int index) {
+        assert refCount() > 0;
+        return delegate.getInt(index);
+    }
+
+    @Override
+    public int indexOf(byte marker, int from) {
+        assert refCount() > 0;
+        return delegate.indexOf(marker, from);
+    }
+
+    @Override
+    public int length() {
+        return delegate.length();
+    }
+
+    @Override
+    public BytesReference slice(int from, int length) {
+        assert refCount() > 0;
+        return delegate.slice(from, length);
+    }
+
+    @Override
+    public long ramBytesUsed() {
+        return delegate.ramBytesUsed();
+    }
+
+    @Override
+    public StreamInput streamInput() throws IOException {
+        assert refCount() > 0;
+        return delegate.streamInput();
+    }
+
+    @Override
+    public void writeTo(OutputStream os) throws IOException {
+        assert refCount() > 0;
+        delegate.writeTo(os);
+    }
+
+    @Override
+    public String utf8ToString() {
+        assert refCount() > 0;
+        return delegate.utf8ToString();
+    }
+
+    @Override
+    public BytesRef toBytesRef() {
+        assert refCount() > 0;
+        return delegate.toBytesRef();
+    }
+
+    @Override
+    public BytesRefIterator iterator() {
+        assert refCount() > 0;
+        return delegate.iterator();
+    }
+
+    @Override
+    public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+        assert refCount() > 0;
+        return delegate.toXContent(builder, params);
+    }
+
+    @Override
+    public boolean isFragment() {
+        return delegate.isFragment();
+    }
+
+    @Override
+    public int compareTo(BytesReference o) {
+        return delegate.compareTo(o);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return delegate.equals(obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return delegate.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return delegate.toString();
+    }
+}
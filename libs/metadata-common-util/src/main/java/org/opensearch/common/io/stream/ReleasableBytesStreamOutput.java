@@ -0,0 +1,78 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.common.io.stream;
+
+import org.opensearch.common.bytes.ReleasableBytesReference;
+import org.opensearch.common.lease.Releasable;
+import org.opensearch.common.lease.Releasables;
+import org.opensearch.common.util.BigArrays;
+import org.opensearch.common.util.PageCacheRecycler;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.util.ByteArray;
+
+/**
+ * A {@link BytesStreamOutput} that acquires its pages from a recycling {@link BigArrays} and must therefore be released.
+ * Closing the stream returns the pages to the recycler, unless they were handed over to a {@link ReleasableBytesReference}
+ * through {@link #releasableBytes()}, in which case releasing that reference returns them.
+ * <p>
+ * The bytes of a closed stream can no longer be accessed.
+ *
+ * @opensearch.internal
+ */
+public class ReleasableBytesStreamOutput extends BytesStreamOutput implements Releasable {
+
+    private boolean closed;
+
+    public ReleasableBytesStreamOutput(BigArrays bigarrays) {
+        this(PageCacheRecycler.PAGE_SIZE_IN_BYTES, bigarrays);
+    }
+
+    public ReleasableBytesStreamOutput(int expectedSize, BigArrays bigArrays) {
+        super(expectedSize, bigArrays);
+    }
+
+    @Override
+    public BytesReference bytes() {
+        ensureOpen();
+        return super.bytes();
+    }
+
+    /**
+     * Returns the bytes written so far without copying them, and hands the pages holding them over to the returned reference.
+     * The stream is empty afterwards and may be reused.
+     */
+    public ReleasableBytesReference releasableBytes() {
+        ensureOpen();
+        final BytesReference reference = super.bytes();
+        final ByteArray pages = bytes;
+        bytes = null;
+        count = 0;
+        return pages == null ? ReleasableBytesReference.wrap(reference) : new ReleasableBytesReference(reference, pages);
+    }
+
+    @Override
+    void ensureCapacity(long offset) {
+        ensureOpen();
+        super.ensureCapacity(offset);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Releasables.close(bytes);
+        bytes = null;
+        count = 0;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("stream is already closed, its pages have been released");
+        }
+    }
+}
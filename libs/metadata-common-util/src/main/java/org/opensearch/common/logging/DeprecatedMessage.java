@@ -36,8 +36,6 @@ import org.opensearch.common.collect.MapBuilder;
 import org.opensearch.core.common.Strings;
 
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A logger message used by {@link DeprecationLogger}.
@@ -52,12 +50,14 @@ public class DeprecatedMessage extends OpenSearchLogMessage {
     // loggers, but small relative to heap size.
     static final int MAX_DEDUPE_CACHE_ENTRIES = 16_384;
 
-    private static final Set<String> keyDedupeCache = ConcurrentHashMap.newKeySet();
-    private final String keyWithXOpaqueId;
+    private static final DeprecationDedupeCache keyDedupeCache = new DeprecationDedupeCache(MAX_DEDUPE_CACHE_ENTRIES);
+    private final String key;
+    private final String xOpaqueId;
 
     public DeprecatedMessage(String key, String xOpaqueId, String messagePattern, Object... args) {
         super(fieldMap(key, xOpaqueId), messagePattern, args);
-        this.keyWithXOpaqueId = key + xOpaqueId;
+        this.key = nullToEmpty(key);
+        this.xOpaqueId = nullToEmpty(xOpaqueId);
     }
 
     /**
@@ -82,15 +82,25 @@ public class DeprecatedMessage extends OpenSearchLogMessage {
     }
 
     public boolean isAlreadyLogged() {
-        if (keyDedupeCache.contains(keyWithXOpaqueId)) {
-            return true;
-        }
-        if (keyDedupeCache.size() >= MAX_DEDUPE_CACHE_ENTRIES) {
-            // Stop logging if max size is breached to avoid performance problems from
-            // excessive logging. The historical logs will be full of deprecation warnings
-            // at this point anyway.
-            return true;
-        }
-        return !keyDedupeCache.add(keyWithXOpaqueId);
+        return isAlreadyLogged(key, xOpaqueId);
+    }
+
+    /**
+     * Returns whether a message with the given key and X-Opaque-Id was already logged, and records it as logged otherwise. Unlike
+     * {@link #isAlreadyLogged()} this doesn't need a message, so that repeated warnings can be dropped before their message is built.
+     */
+    static boolean isAlreadyLogged(String key, String xOpaqueId) {
+        return keyDedupeCache.shouldLog(nullToEmpty(key), nullToEmpty(xOpaqueId)) == false;
+    }
+
+    /**
+     * Returns the number of suppressed repeated warnings by deprecation key.
+     */
+    static Map<String, Long> suppressedCounts() {
+        return keyDedupeCache.suppressedCounts();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
     }
 }
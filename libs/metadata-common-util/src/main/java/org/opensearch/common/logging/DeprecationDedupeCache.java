@@ -0,0 +1,155 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.common.logging;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers which deprecation keys were already logged for which {@code X-Opaque-Id}, so that {@link DeprecationLogger} can drop
+ * repeated warnings before it builds a message.
+ * <p>
+ * Entries are kept in two levels, by key and then by opaque id, so that a lookup only hashes the strings it was given. Lookups of
+ * entries that are already present don't lock or allocate. Once the cache holds its maximum number of entries, adding an entry evicts
+ * one that wasn't looked up recently, chosen with the clock algorithm, so the warning of an evicted entry can be logged again later.
+ * Every key counts how many of its warnings were suppressed.
+ *
+ * @opensearch.internal
+ */
+final class DeprecationDedupeCache {
+
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, KeyEntry> keys = new ConcurrentHashMap<>();
+
+    // guarded by this, the clock hand sweeps over the entries in the order they were added
+    private Entry[] ring = new Entry[16];
+    private int size;
+    private int hand;
+
+    DeprecationDedupeCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("max entries must be positive but was [" + maxEntries + "]");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns {@code true} the first time it's called for a key and opaque id, or again once their entry was evicted, and
+     * {@code false}, counting a suppressed warning for the key, otherwise.
+     */
+    boolean shouldLog(String key, String xOpaqueId) {
+        final KeyEntry keyEntry = keys.get(key);
+        if (keyEntry != null) {
+            final Entry entry = keyEntry.byXOpaqueId.get(xOpaqueId);
+            if (entry != null) {
+                if (entry.referenced == false) {
+                    entry.referenced = true;
+                }
+                keyEntry.suppressed.increment();
+                return false;
+            }
+        }
+        return add(key, xOpaqueId);
+    }
+
+    private synchronized boolean add(String key, String xOpaqueId) {
+        final KeyEntry existing = keys.get(key);
+        if (existing != null && existing.byXOpaqueId.containsKey(xOpaqueId)) {
+            // added concurrently
+            existing.suppressed.increment();
+            return false;
+        }
+        final int slot;
+        if (size < maxEntries) {
+            if (size == ring.length) {
+                ring = Arrays.copyOf(ring, Math.min(maxEntries, ring.length * 2));
+            }
+            slot = size++;
+        } else {
+            slot = evict();
+        }
+        // only look up the entry of the key once evicted, as evicting its last opaque id removes it from the keys
+        final KeyEntry keyEntry = keys.computeIfAbsent(key, KeyEntry::new);
+        final Entry entry = new Entry(keyEntry, xOpaqueId);
+        keyEntry.byXOpaqueId.put(xOpaqueId, entry);
+        ring[slot] = entry;
+        return true;
+    }
+
+    /**
+     * Evicts the first entry the clock hand reaches that wasn't looked up since the hand last passed it, and returns its slot.
+     */
+    private int evict() {
+        while (true) {
+            final Entry entry = ring[hand];
+            if (entry.referenced) {
+                entry.referenced = false;
+                hand = (hand + 1) % size;
+            } else {
+                final KeyEntry keyEntry = entry.keyEntry;
+                keyEntry.byXOpaqueId.remove(entry.xOpaqueId);
+                if (keyEntry.byXOpaqueId.isEmpty()) {
+                    keys.remove(keyEntry.key, keyEntry);
+                }
+                final int slot = hand;
+                hand = (hand + 1) % size;
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of suppressed warnings by key, for the keys that are in the cache.
+     */
+    Map<String, Long> suppressedCounts() {
+        final Map<String, Long> counts = new HashMap<>();
+        for (KeyEntry keyEntry : keys.values()) {
+            counts.put(keyEntry.key, keyEntry.suppressed.sum());
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized void clear() {
+        keys.clear();
+        ring = new Entry[16];
+        size = 0;
+        hand = 0;
+    }
+
+    private static final class KeyEntry {
+        private final String key;
+        private final ConcurrentHashMap<String, Entry> byXOpaqueId = new ConcurrentHashMap<>();
+        private final LongAdder suppressed = new LongAdder();
+
+        private KeyEntry(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final class Entry {
+        private final KeyEntry keyEntry;
+        private final String xOpaqueId;
+        // set by lookups, cleared by the clock hand
+        private volatile boolean referenced;
+
+        private Entry(KeyEntry keyEntry, String xOpaqueId) {
+            this.keyEntry = keyEntry;
+            this.xOpaqueId = xOpaqueId;
+        }
+    }
+}
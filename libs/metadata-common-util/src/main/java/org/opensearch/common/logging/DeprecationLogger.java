@@ -37,6 +37,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.common.annotation.PublicApi;
 
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
@@ -129,6 +130,14 @@ public class DeprecationLogger {
         return xOpaqueIdSupplier.get();
     }
 
+    /**
+     * Returns how many repeated deprecation warnings were suppressed, by deprecation key. Only keys whose warning was logged recently
+     * enough to still be remembered for deduplication are included.
+     */
+    public static Map<String, Long> getSuppressedDeprecationCounts() {
+        return DeprecatedMessage.suppressedCounts();
+    }
+
     /**
      * The builder for the deprecation logger
      *
@@ -140,9 +149,10 @@ public class DeprecationLogger {
         public DeprecationLoggerBuilder withDeprecation(String key, String msg, Object[] params) {
             // Check if the logger is enabled to skip the overhead of deduplicating messages if the logger is disabled
             if (logger.isEnabled(DEPRECATION)) {
-                DeprecatedMessage deprecationMessage = new DeprecatedMessage(key, getXOpaqueId(), msg, params);
-                if (!deprecationMessage.isAlreadyLogged()) {
-                    logger.log(DEPRECATION, deprecationMessage);
+                // deduplicate before building the message, as most warnings are repeated ones
+                final String xOpaqueId = getXOpaqueId();
+                if (DeprecatedMessage.isAlreadyLogged(key, xOpaqueId) == false) {
+                    logger.log(DEPRECATION, new DeprecatedMessage(key, xOpaqueId, msg, params));
                 }
             }
             return this;
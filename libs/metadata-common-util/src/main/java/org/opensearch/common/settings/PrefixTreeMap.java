@@ -0,0 +1,349 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.common.settings;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * An immutable map from setting keys to raw values that stores the keys in a radix tree, so that the prefixes that keys share, like
+ * {@code index.} or {@code cluster.routing.allocation.}, are stored once rather than once per key.
+ * <p>
+ * Entries are iterated in the natural order of their keys, like a {@link TreeMap}. {@link #subMapByPrefix(String)} returns the entries
+ * whose keys start with a prefix, with the prefix removed, as a view that shares the nodes of this map, so that it neither scans nor
+ * copies the keys. Lookups compare the key with the labels of the nodes in place and don't allocate, while iteration rebuilds the keys.
+ *
+ * @opensearch.internal
+ */
+final class PrefixTreeMap extends AbstractMap<String, Object> {
+
+    static final PrefixTreeMap EMPTY = new PrefixTreeMap(null, 0);
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root;
+    // the number of chars of the label of the root that precede the keys of this map, which are a prefix removed by a view
+    private final int rootOffset;
+
+    private Set<Entry<String, Object>> entrySet;
+
+    private PrefixTreeMap(Node root, int rootOffset) {
+        this.root = root;
+        this.rootOffset = rootOffset;
+    }
+
+    /**
+     * Returns a map with the entries of the given map, which is returned as is if it already is a {@link PrefixTreeMap}.
+     */
+    static PrefixTreeMap copyOf(Map<String, Object> map) {
+        if (map instanceof PrefixTreeMap) {
+            return (PrefixTreeMap) map;
+        }
+        if (map.isEmpty()) {
+            return EMPTY;
+        }
+        final SortedMap<String, Object> sorted;
+        if (map instanceof SortedMap && ((SortedMap<String, Object>) map).comparator() == null) {
+            sorted = (SortedMap<String, Object>) map;
+        } else {
+            sorted = new TreeMap<>(map);
+        }
+        final String[] keys = new String[sorted.size()];
+        final Object[] values = new Object[keys.length];
+        int i = 0;
+        for (Entry<String, Object> entry : sorted.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i] = entry.getValue();
+            i++;
+        }
+        return new PrefixTreeMap(build(keys, values, 0, keys.length, 0), 0);
+    }
+
+    /**
+     * Builds the node for the given range of sorted keys, which share their first {@code depth} chars.
+     */
+    private static Node build(String[] keys, Object[] values, int from, int to, int depth) {
+        // as the keys are sorted, the prefix that all of them share is the one that the first and the last share
+        final String first = keys[from];
+        final String last = keys[to - 1];
+        int end = depth;
+        final int max = Math.min(first.length(), last.length());
+        while (end < max && first.charAt(end) == last.charAt(end)) {
+            end++;
+        }
+        final String label = first.substring(depth, end);
+        boolean hasValue = false;
+        Object value = null;
+        if (first.length() == end) {
+            // a key that is a prefix of the others sorts first
+            hasValue = true;
+            value = values[from++];
+        }
+        final List<Node> children = new ArrayList<>();
+        while (from < to) {
+            final char c = keys[from].charAt(end);
+            int childTo = from + 1;
+            while (childTo < to && keys[childTo].charAt(end) == c) {
+                childTo++;
+            }
+            children.add(build(keys, values, from, childTo, end));
+            from = childTo;
+        }
+        return new Node(label, hasValue, value, children.isEmpty() ? NO_CHILDREN : children.toArray(NO_CHILDREN));
+    }
+
+    /**
+     * Returns the entries whose keys start with the given prefix, with the prefix removed from their keys.
+     */
+    PrefixTreeMap subMapByPrefix(String prefix) {
+        if (prefix.isEmpty() || root == null) {
+            return this;
+        }
+        Node node = root;
+        int offset = rootOffset;
+        int pos = 0;
+        while (true) {
+            final String label = node.label;
+            final int length = label.length() - offset;
+            final int remaining = prefix.length() - pos;
+            if (remaining <= length) {
+                // the prefix ends within the label of this node, whose subtree holds all the keys that start with the prefix
+                return prefix.regionMatches(pos, label, offset, remaining) ? new PrefixTreeMap(node, offset + remaining) : EMPTY;
+            }
+            if (prefix.regionMatches(pos, label, offset, length) == false) {
+                return EMPTY;
+            }
+            pos += length;
+            offset = 0;
+            node = node.child(prefix.charAt(pos));
+            if (node == null) {
+                return EMPTY;
+            }
+        }
+    }
+
+    /**
+     * Returns the distinct parts of the keys that precede the first occurrence of the given separator, or the whole keys for the keys
+     * that don't contain it. Subtrees below a separator are skipped rather than iterated.
+     */
+    Set<String> firstSegments(char separator) {
+        final Set<String> segments = new HashSet<>();
+        if (root != null) {
+            collectSegments(root, rootOffset, new StringBuilder(), separator, segments);
+        }
+        return segments;
+    }
+
+    private static void collectSegments(Node node, int offset, StringBuilder prefix, char separator, Set<String> segments) {
+        final int start = prefix.length();
+        final String label = node.label;
+        final int index = label.indexOf(separator, offset);
+        if (index >= 0) {
+            segments.add(prefix.append(label, offset, index).toString());
+        } else {
+            prefix.append(label, offset, label.length());
+            if (node.hasValue) {
+                segments.add(prefix.toString());
+            }
+            for (Node child : node.children) {
+                collectSegments(child, 0, prefix, separator, segments);
+            }
+        }
+        prefix.setLength(start);
+    }
+
+    /**
+     * Returns the node of the given key if it has a value, or {@code null}.
+     */
+    private Node find(Object key) {
+        if (root == null || key instanceof String == false) {
+            return null;
+        }
+        final String theKey = (String) key;
+        Node node = root;
+        int offset = rootOffset;
+        int pos = 0;
+        while (true) {
+            final int length = node.label.length() - offset;
+            if (theKey.regionMatches(pos, node.label, offset, length) == false) {
+                return null;
+            }
+            pos += length;
+            if (pos == theKey.length()) {
+                return node.hasValue ? node : null;
+            }
+            offset = 0;
+            node = node.child(theKey.charAt(pos));
+            if (node == null) {
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public Object get(Object key) {
+        final Node node = find(key);
+        return node == null ? null : node.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public int size() {
+        return root == null ? 0 : root.size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null || root.size == 0;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<Entry<String, Object>>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new EntryIterator(root, rootOffset);
+                }
+
+                @Override
+                public int size() {
+                    return PrefixTreeMap.this.size();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    /**
+     * Iterates over the entries of a subtree depth first, visiting the value of a node before its children, which are sorted, so that
+     * keys come in their natural order.
+     */
+    private static final class EntryIterator implements Iterator<Entry<String, Object>> {
+        private final StringBuilder key = new StringBuilder();
+        // the nodes on the path to the current node, the index of their next child to visit and the length of the key before their label
+        private Node[] nodes = new Node[8];
+        private int[] nextChild = new int[8];
+        private int[] keyLength = new int[8];
+        private int depth = -1;
+        private Entry<String, Object> next;
+
+        EntryIterator(Node root, int rootOffset) {
+            if (root != null) {
+                push(root, rootOffset);
+                if (root.hasValue) {
+                    next = new SimpleImmutableEntry<>(key.toString(), root.value);
+                } else {
+                    advance();
+                }
+            }
+        }
+
+        private void push(Node node, int offset) {
+            depth++;
+            if (depth == nodes.length) {
+                nodes = Arrays.copyOf(nodes, depth * 2);
+                nextChild = Arrays.copyOf(nextChild, depth * 2);
+                keyLength = Arrays.copyOf(keyLength, depth * 2);
+            }
+            nodes[depth] = node;
+            nextChild[depth] = 0;
+            keyLength[depth] = key.length();
+            key.append(node.label, offset, node.label.length());
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                final Node node = nodes[depth];
+                if (nextChild[depth] < node.children.length) {
+                    final Node child = node.children[nextChild[depth]++];
+                    push(child, 0);
+                    if (child.hasValue) {
+                        next = new SimpleImmutableEntry<>(key.toString(), child.value);
+                        return;
+                    }
+                } else {
+                    key.setLength(keyLength[depth]);
+                    nodes[depth--] = null;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Entry<String, Object> current = next;
+            advance();
+            return current;
+        }
+    }
+
+    private static final class Node {
+        // the chars of the keys between the parent node and this node
+        private final String label;
+        // values may be null, so whether a key ends at this node is tracked separately
+        private final boolean hasValue;
+        private final Object value;
+        // sorted by the first char of their label, which is distinct
+        private final Node[] children;
+        // the number of keys in the subtree of this node
+        private final int size;
+
+        Node(String label, boolean hasValue, Object value, Node[] children) {
+            this.label = label;
+            this.hasValue = hasValue;
+            this.value = value;
+            this.children = children;
+            int size = hasValue ? 1 : 0;
+            for (Node child : children) {
+                size += child.size;
+            }
+            this.size = size;
+        }
+
+        Node child(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                final int mid = (low + high) >>> 1;
+                final char midChar = children[mid].label.charAt(0);
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return children[mid];
+                }
+            }
+            return null;
+        }
+    }
+}
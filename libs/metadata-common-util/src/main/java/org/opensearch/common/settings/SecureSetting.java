@@ -247,6 +247,12 @@ public abstract class SecureSetting<T> extends Setting<T> {
             return super.get(settings);
         }
 
+        @Override
+        boolean isCacheable() {
+            // secure strings can be closed by their consumer
+            return false;
+        }
+
         private synchronized void logUsage() {
             if (!this.warningLogged) {
                 LOG.warn("Setting [{}] is insecure, but a secure variant [{}] is advised to be used instead", this.name, this.secureName);
@@ -60,6 +60,7 @@ import org.opensearch.core.xcontent.XContentParser;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
@@ -187,6 +188,8 @@ public class Setting<T> implements ToXContentObject {
     protected final Function<String, T> parser;
     protected final Validator<T> validator;
     private final EnumSet<Property> properties;
+    // the key of the values of this setting cached by Settings instances
+    final Settings.SettingIdentity identity = new Settings.SettingIdentity();
 
     private static final EnumSet<Property> EMPTY_PROPERTIES = EnumSet.noneOf(Property.class);
 
@@ -491,6 +494,16 @@ public class Setting<T> implements ToXContentObject {
     }
 
     private T get(Settings settings, boolean validate) {
+        final boolean cacheable = isCacheable();
+        if (cacheable) {
+            final Object cached = settings.getParsedValue(this);
+            if (cached != Settings.NOT_CACHED) {
+                checkDeprecation(settings);
+                @SuppressWarnings("unchecked")
+                final T value = (T) cached;
+                return value;
+            }
+        }
         String value = getRaw(settings);
         try {
             T parsed = parser.apply(value);
@@ -518,6 +531,10 @@ public class Setting<T> implements ToXContentObject {
                 validator.validate(parsed);
                 validator.validate(parsed, map);
                 validator.validate(parsed, map, exists(settings));
+                if (cacheable && isShareable(parsed)) {
+                    // only cache validated values, a value parsed without validation may be invalid
+                    settings.putParsedValue(this, parsed);
+                }
             }
             return parsed;
         } catch (OpenSearchParseException ex) {
@@ -533,6 +550,25 @@ public class Setting<T> implements ToXContentObject {
         }
     }
 
+    /**
+     * Returns <code>true</code> if the values parsed by {@link #get(Settings)} can be cached on the {@link Settings} instance they were
+     * parsed from. This requires the parsed value to be immutable and to only depend on that instance.
+     */
+    boolean isCacheable() {
+        return isGroupSetting() == false;
+    }
+
+    /**
+     * Returns <code>true</code> if the given parsed value can be returned to several callers. Collections, maps and arrays are never
+     * cached as callers may modify them.
+     */
+    private static boolean isShareable(Object value) {
+        if (value == null) {
+            return true;
+        }
+        return value instanceof Collection == false && value instanceof Map == false && value.getClass().isArray() == false;
+    }
+
     /**
      * Add this setting to the builder if it doesn't exist in the source settings.
      * The value added to the builder is taken from the given default settings object.
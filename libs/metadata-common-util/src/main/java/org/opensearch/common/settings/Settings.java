@@ -82,6 +82,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -103,8 +104,8 @@ public final class Settings implements ToXContentFragment {
 
     public static final Settings EMPTY = new Settings(Collections.emptyMap(), null);
 
-    /** The raw settings from the full key to raw string value. */
-    private final Map<String, Object> settings;
+    /** The raw settings from the full key to raw string value, sorted by key in a prefix tree. */
+    private final PrefixTreeMap settings;
 
     /** The secure settings storage associated with these settings. */
     private final SecureSettings secureSettings;
@@ -118,9 +119,25 @@ public final class Settings implements ToXContentFragment {
      */
     private final SetOnce<Set<String>> keys = new SetOnce<>();
 
+    /** Returned by {@link #getParsedValue(Setting)} when no value is cached for the setting. */
+    static final Object NOT_CACHED = new Object();
+
+    /** The maximum number of parsed values cached by a single instance. */
+    static final int MAX_PARSED_VALUES = 1024;
+
+    /** Marks a cached {@code null} value, as {@link ConcurrentHashMap} does not accept {@code null}. */
+    private static final Object NULL_VALUE = new Object();
+
+    /**
+     * Values parsed by {@link Setting#get(Settings)} from this instance, keyed by setting identity. As this instance is immutable, the
+     * cached values never become stale. This is constructed lazily in {@link #putParsedValue(Setting, Object)}.
+     */
+    private volatile ConcurrentHashMap<SettingIdentity, Object> parsedValues;
+
     private Settings(Map<String, Object> settings, SecureSettings secureSettings) {
-        // we use a sorted map for consistent serialization when using getAsMap()
-        this.settings = Collections.unmodifiableSortedMap(new TreeMap<>(settings));
+        // we use a sorted map for consistent serialization when using getAsMap(), the prefix tree also shares the common prefixes of
+        // keys and lets getByPrefix() return a view instead of a copy
+        this.settings = PrefixTreeMap.copyOf(settings);
         this.secureSettings = secureSettings;
     }
 
@@ -132,6 +149,48 @@ public final class Settings implements ToXContentFragment {
         return secureSettings;
     }
 
+    /**
+     * Returns the value cached for the given setting, which may be {@code null}, or {@link #NOT_CACHED} if there is none.
+     */
+    Object getParsedValue(Setting<?> setting) {
+        final ConcurrentHashMap<SettingIdentity, Object> values = parsedValues;
+        if (values == null) {
+            return NOT_CACHED;
+        }
+        final Object value = values.get(setting.identity);
+        if (value == null) {
+            return NOT_CACHED;
+        }
+        return value == NULL_VALUE ? null : value;
+    }
+
+    /**
+     * Caches the parsed value of the given setting, unless {@link #MAX_PARSED_VALUES} values are cached already.
+     */
+    void putParsedValue(Setting<?> setting, Object value) {
+        ConcurrentHashMap<SettingIdentity, Object> values = parsedValues;
+        if (values == null) {
+            synchronized (this) {
+                values = parsedValues;
+                if (values == null) {
+                    parsedValues = values = new ConcurrentHashMap<>();
+                }
+            }
+        }
+        // concrete settings of affix settings are created on demand, bound the cache so that long-lived instances don't keep them all
+        if (values.size() < MAX_PARSED_VALUES) {
+            values.putIfAbsent(setting.identity, value == null ? NULL_VALUE : value);
+        }
+    }
+
+    /**
+     * Identifies a single {@link Setting} instance, which holds its own, since settings with the same key are equal but may have different
+     * defaults, parsers or validators. Instances are compared by identity so that looking up a cached value doesn't allocate.
+     */
+    static final class SettingIdentity {
+        SettingIdentity() {}
+    }
+
     private Map<String, Object> getAsStructuredMap() {
         Map<String, Object> map = new HashMap<>(2);
         for (Map.Entry<String, Object> entry : settings.entrySet()) {
@@ -229,7 +288,7 @@ public final class Settings implements ToXContentFragment {
      */
     public Settings getByPrefix(String prefix) {
         return new Settings(
-            new FilteredMap(this.settings, (k) -> k.startsWith(prefix), prefix),
+            this.settings.subMapByPrefix(prefix),
             secureSettings == null ? null : new PrefixedSecureSettings(secureSettings, prefix, s -> s.startsWith(prefix))
         );
     }
@@ -518,18 +577,13 @@ public final class Settings implements ToXContentFragment {
     public Set<String> names() {
         synchronized (firstLevelNames) {
             if (firstLevelNames.get() == null) {
-                Stream<String> stream = settings.keySet().stream();
+                Set<String> names = settings.firstSegments('.');
                 if (secureSettings != null) {
-                    stream = Stream.concat(stream, secureSettings.getSettingNames().stream());
-                }
-                Set<String> names = stream.map(k -> {
-                    int i = k.indexOf('.');
-                    if (i < 0) {
-                        return k;
-                    } else {
-                        return k.substring(0, i);
+                    for (String k : secureSettings.getSettingNames()) {
+                        int i = k.indexOf('.');
+                        names.add(i < 0 ? k : k.substring(0, i));
                     }
-                }).collect(Collectors.toSet());
+                }
                 firstLevelNames.set(Collections.unmodifiableSet(names));
             }
         }
@@ -1284,7 +1338,6 @@ public final class Settings implements ToXContentFragment {
         }
     }
 
-    // TODO We could use an FST internally to make things even faster and more compact
     private static final class FilteredMap extends AbstractMap<String, Object> {
         private final Map<String, Object> delegate;
         private final Predicate<String> filter;
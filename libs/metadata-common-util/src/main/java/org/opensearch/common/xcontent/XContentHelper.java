@@ -33,7 +33,12 @@
 package org.opensearch.common.xcontent;
 
 import org.opensearch.OpenSearchParseException;
+import org.opensearch.common.CheckedConsumer;
+import org.opensearch.common.bytes.ReleasableBytesReference;
 import org.opensearch.common.collect.Tuple;
+import org.opensearch.common.io.Streams;
+import org.opensearch.common.io.stream.ReleasableBytesStreamOutput;
+import org.opensearch.common.util.BigArrays;
 import org.opensearch.core.common.bytes.BytesArray;
 import org.opensearch.core.common.bytes.BytesReference;
 import org.opensearch.core.compress.Compressor;
@@ -492,6 +497,58 @@ public class XContentHelper {
         return org.opensearch.core.xcontent.XContentHelper.toXContent(toXContent, xContentType, ToXContent.EMPTY_PARAMS, humanReadable);
     }
 
+    /**
+     * Returns the bytes that represent the XContent output of the provided {@link ToXContent} object like
+     * {@link org.opensearch.core.xcontent.XContentHelper#toXContent(ToXContent, MediaType, Params, boolean)}, but written into pages
+     * acquired from the given {@link BigArrays}, see {@link #toPagedBytes(XContent, BigArrays, CheckedConsumer)}.
+     */
+    public static ReleasableBytesReference toPagedXContent(
+        ToXContent toXContent,
+        MediaType mediaType,
+        Params params,
+        boolean humanReadable,
+        BigArrays bigArrays
+    ) throws IOException {
+        return toPagedBytes(mediaType.xContent(), bigArrays, builder -> {
+            builder.humanReadable(humanReadable);
+            if (toXContent.isFragment()) {
+                builder.startObject();
+            }
+            toXContent.toXContent(builder, params);
+            if (toXContent.isFragment()) {
+                builder.endObject();
+            }
+        });
+    }
+
+    /**
+     * Writes content with the given writer into pages acquired from the given {@link BigArrays} instead of a byte array that grows by
+     * copying itself, so that rendering large content doesn't allocate humongous arrays. The pages are handed over to the returned
+     * reference without copying them and are recycled once it is released, or as soon as the writer fails.
+     * <p>
+     * The builder is only valid within the writer: it doesn't own the pages, so closing it only flushes it.
+     */
+    public static ReleasableBytesReference toPagedBytes(
+        XContent xContent,
+        BigArrays bigArrays,
+        CheckedConsumer<XContentBuilder, IOException> writer
+    ) throws IOException {
+        final ReleasableBytesStreamOutput out = new ReleasableBytesStreamOutput(bigArrays);
+        boolean success = false;
+        try {
+            try (XContentBuilder builder = new XContentBuilder(xContent, Streams.flushOnCloseStream(out))) {
+                writer.accept(builder);
+            }
+            final ReleasableBytesReference bytes = out.releasableBytes();
+            success = true;
+            return bytes;
+        } finally {
+            if (success == false) {
+                out.close();
+            }
+        }
+    }
+
     /**
      * Returns the contents of an object as an unparsed BytesReference
      * <p>
@@ -68,27 +68,51 @@ public class SmileXContent implements XContent, XContentContraints {
     static final SmileFactory smileFactory;
     public static final SmileXContent smileXContent;
 
+    static final SmileFactory metadataSmileFactory;
+    /**
+     * A Smile profile for metadata that is persisted to disk. Metadata repeats the same keys and values, such as setting names and
+     * mapping field types, many times, so besides field names this profile also writes back-references for repeated short string
+     * values. Binary values, such as compressed mappings, are written as raw bytes. The back-references are announced in the Smile
+     * header, so the content can be parsed by either profile.
+     */
+    public static final SmileXContent metadataSmileXContent;
+
     static {
-        smileFactory = new SmileFactory();
+        smileFactory = newSmileFactory();
+        smileXContent = new SmileXContent(smileFactory);
+
+        metadataSmileFactory = newSmileFactory();
+        metadataSmileFactory.configure(SmileGenerator.Feature.WRITE_HEADER, true);
+        metadataSmileFactory.configure(SmileGenerator.Feature.CHECK_SHARED_NAMES, true);
+        metadataSmileFactory.configure(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES, true);
+        metadataSmileXContent = new SmileXContent(metadataSmileFactory);
+    }
+
+    private static SmileFactory newSmileFactory() {
+        final SmileFactory factory = new SmileFactory();
         // for now, this is an overhead, might make sense for web sockets
-        smileFactory.configure(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT, false);
-        smileFactory.configure(SmileFactory.Feature.FAIL_ON_SYMBOL_HASH_OVERFLOW, false); // this trips on many mappings now...
+        factory.configure(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT, false);
+        factory.configure(SmileFactory.Feature.FAIL_ON_SYMBOL_HASH_OVERFLOW, false); // this trips on many mappings now...
         // Do not automatically close unclosed objects/arrays in com.fasterxml.jackson.dataformat.smile.SmileGenerator#close() method
-        smileFactory.configure(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT, false);
-        smileFactory.configure(JsonParser.Feature.STRICT_DUPLICATE_DETECTION, true);
-        smileFactory.setStreamWriteConstraints(StreamWriteConstraints.builder().maxNestingDepth(DEFAULT_MAX_DEPTH).build());
-        smileFactory.setStreamReadConstraints(
+        factory.configure(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT, false);
+        factory.configure(JsonParser.Feature.STRICT_DUPLICATE_DETECTION, true);
+        factory.setStreamWriteConstraints(StreamWriteConstraints.builder().maxNestingDepth(DEFAULT_MAX_DEPTH).build());
+        factory.setStreamReadConstraints(
             StreamReadConstraints.builder()
                 .maxStringLength(DEFAULT_MAX_STRING_LEN)
                 .maxNameLength(DEFAULT_MAX_NAME_LEN)
                 .maxNestingDepth(DEFAULT_MAX_DEPTH)
                 .build()
         );
-        smileFactory.configure(StreamReadFeature.USE_FAST_DOUBLE_PARSER.mappedFeature(), true);
-        smileXContent = new SmileXContent();
+        factory.configure(StreamReadFeature.USE_FAST_DOUBLE_PARSER.mappedFeature(), true);
+        return factory;
     }
 
-    private SmileXContent() {}
+    private final SmileFactory factory;
+
+    private SmileXContent(SmileFactory factory) {
+        this.factory = factory;
+    }
 
     @Override
     public MediaType mediaType() {
@@ -102,25 +126,25 @@ public class SmileXContent implements XContent, XContentContraints {
 
     @Override
     public XContentGenerator createGenerator(OutputStream os, Set<String> includes, Set<String> excludes) throws IOException {
-        return new SmileXContentGenerator(smileFactory.createGenerator(os, JsonEncoding.UTF8), os, includes, excludes);
+        return new SmileXContentGenerator(factory.createGenerator(os, JsonEncoding.UTF8), os, includes, excludes);
     }
 
     @Override
     public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, String content)
         throws IOException {
-        return new SmileXContentParser(xContentRegistry, deprecationHandler, smileFactory.createParser(content));
+        return new SmileXContentParser(xContentRegistry, deprecationHandler, factory.createParser(content));
     }
 
     @Override
     public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, InputStream is)
         throws IOException {
-        return new SmileXContentParser(xContentRegistry, deprecationHandler, smileFactory.createParser(is));
+        return new SmileXContentParser(xContentRegistry, deprecationHandler, factory.createParser(is));
     }
 
     @Override
     public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, byte[] data)
         throws IOException {
-        return new SmileXContentParser(xContentRegistry, deprecationHandler, smileFactory.createParser(data));
+        return new SmileXContentParser(xContentRegistry, deprecationHandler, factory.createParser(data));
     }
 
     @Override
@@ -131,12 +155,12 @@ public class SmileXContent implements XContent, XContentContraints {
         int offset,
         int length
     ) throws IOException {
-        return new SmileXContentParser(xContentRegistry, deprecationHandler, smileFactory.createParser(data, offset, length));
+        return new SmileXContentParser(xContentRegistry, deprecationHandler, factory.createParser(data, offset, length));
     }
 
     @Override
     public XContentParser createParser(NamedXContentRegistry xContentRegistry, DeprecationHandler deprecationHandler, Reader reader)
         throws IOException {
-        return new SmileXContentParser(xContentRegistry, deprecationHandler, smileFactory.createParser(reader));
+        return new SmileXContentParser(xContentRegistry, deprecationHandler, factory.createParser(reader));
     }
 }
@@ -594,4 +594,30 @@ public final class DiffableUtils {
             return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(in.readStringArray())));
         }
     }
+
+    /**
+     * Implementation of ValueSerializer that serializes immutable sets of identifiers, such as allocation ids, with
+     * {@link StreamOutput#writeUUID(String)}
+     *
+     * @param <K> type of map key
+     *
+     * @opensearch.internal
+     */
+    public static class UUIDSetValueSerializer<K> extends NonDiffableValueSerializer<K, Set<String>> {
+        private static final UUIDSetValueSerializer INSTANCE = new UUIDSetValueSerializer();
+
+        public static <K> UUIDSetValueSerializer<K> getInstance() {
+            return INSTANCE;
+        }
+
+        @Override
+        public void write(Set<String> value, StreamOutput out) throws IOException {
+            out.writeCollection(value, StreamOutput::writeUUID);
+        }
+
+        @Override
+        public Set<String> read(StreamInput in, K key) throws IOException {
+            return Collections.unmodifiableSet(new HashSet<>(in.readList(StreamInput::readUUID)));
+        }
+    }
 }
@@ -0,0 +1,380 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.cluster.block;
+
+import org.opensearch.cluster.metadata.core.AbstractIndexMetadata;
+import org.opensearch.common.annotation.PublicApi;
+import org.opensearch.common.settings.Settings;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.Writeable;
+import org.opensearch.core.rest.RestStatus;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableSet;
+
+/**
+ * An immutable registry of the global and index level blocks of a cluster.
+ * <p>
+ * Blocks are indexed by {@link ClusterBlockLevel} when the registry is built: every level knows its global blocks and holds a bitset of
+ * the indices it blocks, keyed by an ordinal assigned to every index with blocks. Checking whether the cluster is blocked at a level is
+ * therefore a constant time operation and checking an index a single map lookup and bit test, which avoids iterating over block sets on
+ * every request.
+ *
+ * @opensearch.api
+ */
+@PublicApi(since = "3.2.0")
+public final class ClusterBlocks implements Writeable {
+
+    public static final ClusterBlocks EMPTY_CLUSTER_BLOCK = new ClusterBlocks(emptySet(), Collections.emptyMap());
+
+    private final Set<ClusterBlock> global;
+
+    private final Map<String, Set<ClusterBlock>> indicesBlocks;
+
+    private final Map<String, Integer> indexOrdinals;
+
+    private final LevelHolder[] levelHolders;
+
+    ClusterBlocks(Set<ClusterBlock> global, Map<String, Set<ClusterBlock>> indicesBlocks) {
+        this.global = global;
+        this.indicesBlocks = indicesBlocks;
+        this.indexOrdinals = new HashMap<>(indicesBlocks.size());
+        for (String index : indicesBlocks.keySet()) {
+            indexOrdinals.put(index, indexOrdinals.size());
+        }
+        this.levelHolders = generateLevelHolders(global, indicesBlocks, indexOrdinals);
+    }
+
+    public Set<ClusterBlock> global() {
+        return global;
+    }
+
+    public Map<String, Set<ClusterBlock>> indices() {
+        return indicesBlocks;
+    }
+
+    public Set<ClusterBlock> global(ClusterBlockLevel level) {
+        return levelHolders[level.ordinal()].global();
+    }
+
+    /**
+     * Returns the blocks of the given index that apply to the given level. Global blocks are not included.
+     */
+    public Set<ClusterBlock> indices(ClusterBlockLevel level, String index) {
+        final Integer ordinal = indexOrdinals.get(index);
+        final LevelHolder levelHolder = levelHolders[level.ordinal()];
+        if (ordinal == null || levelHolder.blockedIndices().get(ordinal) == false) {
+            return emptySet();
+        }
+        return levelHolder.indexBlocks()[ordinal];
+    }
+
+    private static LevelHolder[] generateLevelHolders(
+        Set<ClusterBlock> global,
+        Map<String, Set<ClusterBlock>> indicesBlocks,
+        Map<String, Integer> indexOrdinals
+    ) {
+        final LevelHolder[] levelHolders = new LevelHolder[ClusterBlockLevel.values().length];
+        for (final ClusterBlockLevel level : ClusterBlockLevel.values()) {
+            final Set<ClusterBlock> globalLevel = new HashSet<>();
+            for (ClusterBlock block : global) {
+                if (block.contains(level)) {
+                    globalLevel.add(block);
+                }
+            }
+            final BitSet blockedIndices = new BitSet(indexOrdinals.size());
+            @SuppressWarnings("unchecked")
+            final Set<ClusterBlock>[] indexBlocks = new Set[indexOrdinals.size()];
+            for (Map.Entry<String, Set<ClusterBlock>> entry : indicesBlocks.entrySet()) {
+                final Set<ClusterBlock> blocks = entry.getValue();
+                final Set<ClusterBlock> levelBlocks = new HashSet<>();
+                for (ClusterBlock block : blocks) {
+                    if (block.contains(level)) {
+                        levelBlocks.add(block);
+                    }
+                }
+                if (levelBlocks.isEmpty() == false) {
+                    final int ordinal = indexOrdinals.get(entry.getKey());
+                    blockedIndices.set(ordinal);
+                    // share the blocks of the index when all of them apply to the level
+                    indexBlocks[ordinal] = levelBlocks.size() == blocks.size() ? blocks : unmodifiableSet(levelBlocks);
+                }
+            }
+            levelHolders[level.ordinal()] = new LevelHolder(unmodifiableSet(globalLevel), blockedIndices, indexBlocks);
+        }
+        return levelHolders;
+    }
+
+    /**
+     * Returns {@code true} if one of the global blocks has its disable state persistence flag set.
+     */
+    public boolean disableStatePersistence() {
+        for (ClusterBlock clusterBlock : global) {
+            if (clusterBlock.disableStatePersistence()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasGlobalBlock(ClusterBlock block) {
+        return global.contains(block);
+    }
+
+    public boolean hasGlobalBlockWithId(final int blockId) {
+        for (ClusterBlock clusterBlock : global) {
+            if (clusterBlock.id() == blockId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasGlobalBlockWithLevel(ClusterBlockLevel level) {
+        return global(level).isEmpty() == false;
+    }
+
+    /**
+     * Is there a global block with the provided status?
+     */
+    public boolean hasGlobalBlockWithStatus(final RestStatus status) {
+        for (ClusterBlock clusterBlock : global) {
+            if (clusterBlock.status().equals(status)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean hasIndexBlock(String index, ClusterBlock block) {
+        final Set<ClusterBlock> blocks = indicesBlocks.get(index);
+        return blocks != null && blocks.contains(block);
+    }
+
+    public boolean hasIndexBlockWithId(String index, int blockId) {
+        final Set<ClusterBlock> clusterBlocks = indicesBlocks.get(index);
+        if (clusterBlocks != null) {
+            for (ClusterBlock clusterBlock : clusterBlocks) {
+                if (clusterBlock.id() == blockId) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if the given index is blocked at the given level, either by a global block or by one of its own blocks.
+     */
+    public boolean indexBlocked(ClusterBlockLevel level, String index) {
+        return hasGlobalBlockWithLevel(level) || indexBlockedRaw(level, index);
+    }
+
+    /**
+     * Returns {@code true} if any of the given indices is blocked at the given level.
+     */
+    public boolean indicesBlocked(ClusterBlockLevel level, String[] indices) {
+        if (hasGlobalBlockWithLevel(level)) {
+            return true;
+        }
+        for (String index : indices) {
+            if (indexBlockedRaw(level, index)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean indexBlockedRaw(ClusterBlockLevel level, String index) {
+        final Integer ordinal = indexOrdinals.get(index);
+        return ordinal != null && levelHolders[level.ordinal()].blockedIndices().get(ordinal);
+    }
+
+    @Override
+    public String toString() {
+        if (global.isEmpty() && indicesBlocks.isEmpty()) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append("blocks: \n");
+        if (global.isEmpty() == false) {
+            sb.append("   _global_:\n");
+            for (ClusterBlock block : global) {
+                sb.append("      ").append(block);
+            }
+        }
+        for (Map.Entry<String, Set<ClusterBlock>> entry : new TreeMap<>(indicesBlocks).entrySet()) {
+            sb.append("   ").append(entry.getKey()).append(":\n");
+            for (ClusterBlock block : entry.getValue()) {
+                sb.append("      ").append(block);
+            }
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+
+    /**
+     * Writes the global blocks followed by the blocks of every index, each block being written with {@link ClusterBlock#writeTo}.
+     */
+    @Override
+    public void writeTo(StreamOutput out) throws IOException {
+        out.writeCollection(global);
+        out.writeMap(indicesBlocks, StreamOutput::writeString, StreamOutput::writeCollection);
+    }
+
+    public static ClusterBlocks readFrom(StreamInput in) throws IOException {
+        final Set<ClusterBlock> global = readBlockSet(in);
+        final Map<String, Set<ClusterBlock>> indicesBlocks = in.readMap(StreamInput::readString, ClusterBlocks::readBlockSet);
+        if (global.isEmpty() && indicesBlocks.isEmpty()) {
+            return EMPTY_CLUSTER_BLOCK;
+        }
+        return new ClusterBlocks(global, Collections.unmodifiableMap(indicesBlocks));
+    }
+
+    private static Set<ClusterBlock> readBlockSet(StreamInput in) throws IOException {
+        final Set<ClusterBlock> blocks = in.readSet(ClusterBlock::new);
+        return blocks.isEmpty() ? emptySet() : unmodifiableSet(blocks);
+    }
+
+    /**
+     * The blocks of a single level. The blocks of an index that apply to the level are stored at its ordinal, if it is blocked.
+     *
+     * @opensearch.internal
+     */
+    private record LevelHolder(Set<ClusterBlock> global, BitSet blockedIndices, Set<ClusterBlock>[] indexBlocks) {
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for cluster blocks.
+     *
+     * @opensearch.api
+     */
+    @PublicApi(since = "3.2.0")
+    public static class Builder {
+
+        private final Set<ClusterBlock> global = new HashSet<>();
+
+        private final Map<String, Set<ClusterBlock>> indices = new HashMap<>();
+
+        public Builder() {}
+
+        public Builder blocks(ClusterBlocks blocks) {
+            global.addAll(blocks.global());
+            for (Map.Entry<String, Set<ClusterBlock>> entry : blocks.indices().entrySet()) {
+                indices.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
+            }
+            return this;
+        }
+
+        /**
+         * Adds the index blocks implied by the settings of the given index, such as {@code index.blocks.read_only}.
+         */
+        public Builder addBlocks(AbstractIndexMetadata<?> indexMetadata) {
+            final String indexName = indexMetadata.getIndex().getName();
+            final Settings settings = indexMetadata.getSettings();
+            for (AbstractIndexMetadata.APIBlock block : AbstractIndexMetadata.APIBlock.values()) {
+                if (block.setting().get(settings)) {
+                    addIndexBlock(indexName, block.getBlock());
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Replaces the index blocks implied by the settings of the given index.
+         */
+        public Builder updateBlocks(AbstractIndexMetadata<?> indexMetadata) {
+            final String indexName = indexMetadata.getIndex().getName();
+            for (AbstractIndexMetadata.APIBlock block : AbstractIndexMetadata.APIBlock.values()) {
+                removeIndexBlock(indexName, block.getBlock());
+            }
+            return addBlocks(indexMetadata);
+        }
+
+        public Builder addGlobalBlock(ClusterBlock block) {
+            global.add(block);
+            return this;
+        }
+
+        public Builder removeGlobalBlock(ClusterBlock block) {
+            global.remove(block);
+            return this;
+        }
+
+        public Builder removeGlobalBlock(int blockId) {
+            global.removeIf(block -> block.id() == blockId);
+            return this;
+        }
+
+        public Builder addIndexBlock(String index, ClusterBlock block) {
+            indices.computeIfAbsent(index, k -> new HashSet<>()).add(block);
+            return this;
+        }
+
+        public Builder removeIndexBlocks(String index) {
+            indices.remove(index);
+            return this;
+        }
+
+        public boolean hasIndexBlock(String index, ClusterBlock block) {
+            final Set<ClusterBlock> blocks = indices.get(index);
+            return blocks != null && blocks.contains(block);
+        }
+
+        public Builder removeIndexBlock(String index, ClusterBlock block) {
+            final Set<ClusterBlock> blocks = indices.get(index);
+            if (blocks == null) {
+                return this;
+            }
+            blocks.remove(block);
+            if (blocks.isEmpty()) {
+                indices.remove(index);
+            }
+            return this;
+        }
+
+        public Builder removeIndexBlockWithId(String index, int blockId) {
+            final Set<ClusterBlock> blocks = indices.get(index);
+            if (blocks == null) {
+                return this;
+            }
+            blocks.removeIf(block -> block.id() == blockId);
+            if (blocks.isEmpty()) {
+                indices.remove(index);
+            }
+            return this;
+        }
+
+        public ClusterBlocks build() {
+            if (global.isEmpty() && indices.isEmpty()) {
+                return EMPTY_CLUSTER_BLOCK;
+            }
+            // We copy the block sets here in case of the builder is modified after build is called
+            final Map<String, Set<ClusterBlock>> indicesBuilder = new HashMap<>(indices.size());
+            for (Map.Entry<String, Set<ClusterBlock>> entry : indices.entrySet()) {
+                indicesBuilder.put(entry.getKey(), unmodifiableSet(new HashSet<>(entry.getValue())));
+            }
+            return new ClusterBlocks(unmodifiableSet(new HashSet<>(global)), Collections.unmodifiableMap(indicesBuilder));
+        }
+    }
+}
@@ -49,7 +49,6 @@ import org.opensearch.cluster.metadata.IngestionStatus;
 import org.opensearch.cluster.node.DiscoveryNodeFilters;
 import org.opensearch.common.Nullable;
 import org.opensearch.common.annotation.PublicApi;
-import org.opensearch.common.collect.MapBuilder;
 import org.opensearch.common.compress.CompressedXContent;
 import org.opensearch.common.settings.Setting;
 import org.opensearch.common.settings.Setting.Property;
@@ -61,6 +60,7 @@ import org.opensearch.core.common.Strings;
 import org.opensearch.core.common.io.stream.BufferedChecksumStreamOutput;
 import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.VerifiableChecksums;
 import org.opensearch.core.common.io.stream.VerifiableWriteable;
 import org.opensearch.core.common.io.stream.Writeable;
 import org.opensearch.core.index.Index;
@@ -71,7 +71,7 @@ import org.opensearch.core.xcontent.ToXContent;
 import org.opensearch.core.xcontent.ToXContentFragment;
 import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.core.xcontent.XContentParser;
-
+import org.opensearch.gateway.MetadataStateFormat;
 import org.opensearch.index.seqno.SequenceNumbers;
 import org.opensearch.indices.pollingingest.IngestionErrorStrategy;
 import org.opensearch.indices.pollingingest.ResetState;
@@ -1031,6 +1031,8 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
     protected final Context context;
     protected final IngestionStatus ingestionStatus;
 
+    private final VerifiableChecksums.Cache checksumCache = new VerifiableChecksums.Cache();
+
     protected AbstractIndexMetadata(
         final Index index,
         final long version,
@@ -1486,7 +1488,7 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
                 before.inSyncAllocationIds,
                 after.inSyncAllocationIds,
                 DiffableUtils.getVIntKeySerializer(),
-                DiffableUtils.StringSetValueSerializer.getInstance()
+                DiffableUtils.UUIDSetValueSerializer.getInstance()
             );
             rolloverInfos = DiffableUtils.diff(before.rolloverInfos, after.rolloverInfos, DiffableUtils.getStringKeySerializer());
             isSystem = after.isSystem;
@@ -1519,7 +1521,7 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
             inSyncAllocationIds = DiffableUtils.readJdkMapDiff(
                 in,
                 DiffableUtils.getVIntKeySerializer(),
-                DiffableUtils.StringSetValueSerializer.getInstance()
+                DiffableUtils.UUIDSetValueSerializer.getInstance()
             );
             rolloverInfos = DiffableUtils.readJdkMapDiff(in, DiffableUtils.getStringKeySerializer(), ROLLOVER_INFO_DIFF_VALUE_READER);
             isSystem = in.readBoolean();
@@ -1613,7 +1615,7 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
         int inSyncAllocationIdsSize = in.readVInt();
         for (int i = 0; i < inSyncAllocationIdsSize; i++) {
             int key = in.readVInt();
-            Set<String> allocationIds = DiffableUtils.StringSetValueSerializer.getInstance().read(in, key);
+            Set<String> allocationIds = DiffableUtils.UUIDSetValueSerializer.getInstance().read(in, key);
             builder.putInSyncAllocationIds(key, allocationIds);
         }
         int rolloverAliasesSize = in.readVInt();
@@ -1659,7 +1661,7 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
         out.writeVInt(inSyncAllocationIds.size());
         for (final Map.Entry<Integer, Set<String>> cursor : inSyncAllocationIds.entrySet()) {
             out.writeVInt(cursor.getKey());
-            DiffableUtils.StringSetValueSerializer.getInstance().write(cursor.getValue(), out);
+            DiffableUtils.UUIDSetValueSerializer.getInstance().write(cursor.getValue(), out);
         }
         out.writeVInt(rolloverInfos.size());
         for (final RolloverInfo cursor : rolloverInfos.values()) {
@@ -1702,6 +1704,15 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
         }
     }
 
+    /**
+     * Returns the checksum of {@link #writeVerifiableTo(BufferedChecksumStreamOutput)}, computed once per version as this instance
+     * is immutable.
+     */
+    @Override
+    public long getChecksum(Version version) throws IOException {
+        return checksumCache.get(this, version);
+    }
+
     @Override
     public String toString() {
         return new StringBuilder().append("IndexMetadata{routingNumShards=")
@@ -2229,7 +2240,7 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
                     if (binary) {
                         builder.value(mmd.source().compressed());
                     } else {
-                        builder.map(XContentHelper.convertToMap(mmd.source().uncompressed(), true).v2());
+                        builder.acyclicMap(XContentHelper.convertToMap(mmd.source().uncompressed(), true).v2());
                     }
                 }
                 builder.endArray();
@@ -2243,7 +2254,7 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
                         mapping = (Map<String, Object>) mapping.get(mmd.type());
                     }
                     builder.field(mmd.type());
-                    builder.map(mapping);
+                    builder.acyclicMap(mapping);
                 }
                 builder.endObject();
             }
@@ -2335,11 +2346,7 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
                             if (token == XContentParser.Token.FIELD_NAME) {
                                 currentFieldName = parser.currentName();
                             } else if (token == XContentParser.Token.START_OBJECT) {
-                                String mappingType = currentFieldName;
-                                Map<String, Object> mappingSource = MapBuilder.<String, Object>newMapBuilder()
-                                    .put(mappingType, parser.mapOrdered())
-                                    .map();
-                                builder.putMapping(new AbstractMappingMetadata(mappingType, mappingSource));
+                                builder.putMapping(AbstractMappingMetadata.fromXContent(currentFieldName, parser));
                             } else {
                                 throw new IllegalArgumentException("Unexpected token: " + token);
                             }
@@ -2393,12 +2400,24 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
                         while ((token = parser.nextToken()) != XContentParser.Token.END_ARRAY) {
                             if (token == XContentParser.Token.VALUE_EMBEDDED_OBJECT) {
                                 builder.putMapping(new AbstractMappingMetadata(new CompressedXContent(parser.binaryValue())));
-                            } else {
-                                Map<String, Object> mapping = parser.mapOrdered();
-                                if (mapping.size() == 1) {
-                                    String mappingType = mapping.keySet().iterator().next();
-                                    builder.putMapping(new AbstractMappingMetadata(mappingType, mapping));
+                            } else if (token == XContentParser.Token.START_OBJECT) {
+                                // {type: mapping}, only a single root type is accepted
+                                if (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+                                    final String mappingType = parser.currentName();
+                                    parser.nextToken();
+                                    final AbstractMappingMetadata mappingMd = AbstractMappingMetadata.fromXContent(mappingType, parser);
+                                    if (parser.nextToken() == XContentParser.Token.END_OBJECT) {
+                                        builder.putMapping(mappingMd);
+                                    } else {
+                                        // more than one root type, the mapping is ignored
+                                        do {
+                                            parser.nextToken();
+                                            parser.skipChildren();
+                                        } while (parser.nextToken() != XContentParser.Token.END_OBJECT);
+                                    }
                                 }
+                            } else {
+                                throw new IllegalArgumentException("Unexpected token: " + token);
                             }
                         }
                     } else if (KEY_PRIMARY_TERMS.equals(currentFieldName)) {
@@ -2486,6 +2505,24 @@ public class AbstractIndexMetadata<T> implements Diffable<T>, ToXContentFragment
         FORMAT_PARAMS = new MapParams(params);
     }
 
+    /**
+     * State format for {@link AbstractIndexMetadata} to write to and load from disk
+     */
+    public static final MetadataStateFormat<AbstractIndexMetadata<?>> FORMAT = new MetadataStateFormat<AbstractIndexMetadata<?>>(
+        INDEX_STATE_FILE_PREFIX
+    ) {
+
+        @Override
+        public void toXContent(XContentBuilder builder, AbstractIndexMetadata<?> state) throws IOException {
+            Builder.toXContent(state, builder, FORMAT_PARAMS);
+        }
+
+        @Override
+        public AbstractIndexMetadata<?> fromXContent(XContentParser parser) throws IOException {
+            return Builder.fromXContent(parser);
+        }
+    };
+
     /**
      * Return the version the index was created from the provided index settings
      * <p>
@@ -44,7 +44,9 @@ import org.opensearch.core.common.io.stream.BufferedChecksumStreamOutput;
 import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.core.common.io.stream.StreamOutput;
 import org.opensearch.core.common.io.stream.VerifiableWriteable;
+import org.opensearch.core.xcontent.ToXContent;
 import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
@@ -100,6 +102,54 @@ public class AbstractMappingMetadata extends AbstractDiffable<AbstractMappingMet
         this.routingRequired = isRoutingRequired(withoutType);
     }
 
+    /**
+     * Parses the mapping of the given type. The parser must be positioned on the {@code START_OBJECT} token of the mapping, which is
+     * copied token by token into the compressed source as {@code {type: mapping}}. Unlike {@link #AbstractMappingMetadata(String, Map)}
+     * the mapping is never materialized as a map: {@code _routing.required} is extracted while copying.
+     */
+    public static AbstractMappingMetadata fromXContent(String type, XContentParser parser) throws IOException {
+        if (parser.currentToken() != XContentParser.Token.START_OBJECT) {
+            throw new IllegalArgumentException("expected object for mapping [" + type + "] but got a " + parser.currentToken());
+        }
+        final boolean[] routingRequired = new boolean[1];
+        final CompressedXContent source = new CompressedXContent((builder, params) -> {
+            builder.field(type);
+            routingRequired[0] = copyMapping(type, parser, builder);
+            return builder;
+        }, ToXContent.EMPTY_PARAMS);
+        return new AbstractMappingMetadata(type, source, routingRequired[0]);
+    }
+
+    /**
+     * Copies the mapping object the parser is positioned on into the builder and returns the value of {@code _routing.required}.
+     */
+    private static boolean copyMapping(String type, XContentParser parser, XContentBuilder builder) throws IOException {
+        boolean required = false;
+        builder.startObject();
+        while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+            final String fieldName = parser.currentName();
+            final XContentParser.Token token = parser.nextToken();
+            builder.field(fieldName);
+            if ("_routing".equals(fieldName) && token == XContentParser.Token.START_OBJECT) {
+                builder.startObject();
+                while (parser.nextToken() != XContentParser.Token.END_OBJECT) {
+                    final String routingFieldName = parser.currentName();
+                    parser.nextToken();
+                    builder.field(routingFieldName);
+                    if ("required".equals(routingFieldName)) {
+                        required = routingRequired(type, parser.objectText());
+                    }
+                    builder.copyCurrentStructure(parser);
+                }
+                builder.endObject();
+            } else {
+                builder.copyCurrentStructure(parser);
+            }
+        }
+        builder.endObject();
+        return required;
+    }
+
     @SuppressWarnings("unchecked")
     private boolean isRoutingRequired(Map<String, Object> withoutType) {
         boolean required = false;
@@ -109,20 +159,24 @@ public class AbstractMappingMetadata extends AbstractDiffable<AbstractMappingMet
                 String fieldName = entry.getKey();
                 Object fieldNode = entry.getValue();
                 if (fieldName.equals("required")) {
-                    try {
-                        required = nodeBooleanValue(fieldNode);
-                    } catch (IllegalArgumentException ex) {
-                        throw new IllegalArgumentException(
-                            "Failed to create mapping for type [" + this.type() + "]. " + "Illegal value in field [_routing.required].",
-                            ex
-                        );
-                    }
+                    required = routingRequired(this.type(), fieldNode);
                 }
             }
         }
         return required;
     }
 
+    private static boolean routingRequired(String type, Object fieldNode) {
+        try {
+            return nodeBooleanValue(fieldNode);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                "Failed to create mapping for type [" + type + "]. " + "Illegal value in field [_routing.required].",
+                ex
+            );
+        }
+    }
+
     public String type() {
         return this.type;
     }
@@ -0,0 +1,272 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.cluster.metadata.core;
+
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.BytesRefIterator;
+import org.opensearch.OpenSearchCorruptionException;
+import org.opensearch.Version;
+import org.opensearch.common.Nullable;
+import org.opensearch.common.io.stream.BytesStreamOutput;
+import org.opensearch.core.common.bytes.BytesArray;
+import org.opensearch.core.common.bytes.BytesReference;
+import org.opensearch.core.common.bytes.CompositeBytesReference;
+import org.opensearch.core.common.io.stream.NamedWriteableAwareStreamInput;
+import org.opensearch.core.common.io.stream.NamedWriteableRegistry;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Serializes a collection of {@link AbstractIndexMetadata} as a framed container so that the entries can be encoded and decoded in
+ * parallel. The container consists of the number of frames followed by a single length-prefixed block holding every frame. Each frame
+ * is made of a fixed header (the payload length and the CRC32 of the payload, both as big-endian ints) followed by the payload, which is
+ * the regular {@link AbstractIndexMetadata#writeTo(StreamOutput)} output of one index.
+ * <p>
+ * Frames are encoded independently and assembled into a {@link CompositeBytesReference} without copying. On decoding, the frame
+ * boundaries are located with a sequential scan of the headers only, then every frame is verified and decoded from its own slice on
+ * the given {@link ForkJoinPool}. The decoded entries are returned in their original order. Collections smaller than
+ * {@link #PARALLEL_THRESHOLD} are processed on the calling thread.
+ * <p>
+ * When the collection is written to and read from a stream, every frame is encoded and decoded like that stream: with its version, with
+ * the tables enabled on it, see {@link StreamOutput#enableSameTablesOn(StreamOutput)}, and with its {@link NamedWriteableRegistry}.
+ *
+ * @opensearch.internal
+ */
+public final class FramedIndexMetadataSerializer implements StreamSerializer<List<AbstractIndexMetadata<?>>> {
+
+    /**
+     * Size of the header preceding each frame: the payload length and its checksum.
+     */
+    static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+
+    /**
+     * Below this number of entries the overhead of forking outweighs the gain of decoding in parallel.
+     */
+    public static final int PARALLEL_THRESHOLD = 64;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates a serializer encoding and decoding frames on the given pool.
+     */
+    public FramedIndexMetadataSerializer(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool must not be null");
+    }
+
+    /**
+     * Creates a serializer encoding and decoding frames on the {@link ForkJoinPool#commonPool() common pool}.
+     */
+    public FramedIndexMetadataSerializer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    @Override
+    public void writeTo(List<AbstractIndexMetadata<?>> indices, StreamOutput out) throws IOException {
+        out.writeVInt(indices.size());
+        out.writeBytesReference(encode(indices, out.getVersion(), out));
+    }
+
+    @Override
+    public List<AbstractIndexMetadata<?>> readFrom(StreamInput in) throws IOException {
+        final int frameCount = in.readVInt();
+        final BytesReference frames = in.readBytesReference();
+        return decode(frameCount, frames, in.getVersion(), in);
+    }
+
+    /**
+     * Encodes every index into its own frame and assembles the frames, in order, without copying them.
+     */
+    public BytesReference encode(List<AbstractIndexMetadata<?>> indices, Version version) throws IOException {
+        return encode(indices, version, null);
+    }
+
+    private BytesReference encode(List<AbstractIndexMetadata<?>> indices, Version version, @Nullable StreamOutput out) throws IOException {
+        final BytesReference[] frames;
+        if (indices.size() < PARALLEL_THRESHOLD) {
+            frames = new BytesReference[indices.size()];
+            for (int i = 0; i < frames.length; i++) {
+                frames[i] = encodeFrame(indices.get(i), version, out);
+            }
+        } else {
+            frames = invoke(() -> indices.parallelStream().map(indexMetadata -> {
+                try {
+                    return encodeFrame(indexMetadata, version, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).toArray(BytesReference[]::new));
+        }
+        return CompositeBytesReference.of(frames);
+    }
+
+    /**
+     * Decodes {@code frameCount} frames from the given bytes, verifying the checksum of each of them.
+     */
+    public List<AbstractIndexMetadata<?>> decode(int frameCount, BytesReference frames, Version version) throws IOException {
+        return decode(frameCount, frames, version, null);
+    }
+
+    private List<AbstractIndexMetadata<?>> decode(int frameCount, BytesReference frames, Version version, @Nullable StreamInput in)
+        throws IOException {
+        if (frameCount == 0) {
+            if (frames.length() != 0) {
+                throw new OpenSearchCorruptionException("expected no frames but found [" + frames.length() + "] bytes");
+            }
+            return Collections.emptyList();
+        }
+        final BytesReference[] payloads = new BytesReference[frameCount];
+        final int[] checksums = new int[frameCount];
+        int offset = 0;
+        for (int i = 0; i < frameCount; i++) {
+            if (frames.length() - offset < FRAME_HEADER_SIZE) {
+                throw new OpenSearchCorruptionException("truncated header for frame [" + i + "] at offset [" + offset + "]");
+            }
+            final int length = frames.getInt(offset);
+            checksums[i] = frames.getInt(offset + Integer.BYTES);
+            offset += FRAME_HEADER_SIZE;
+            if (length < 0 || length > frames.length() - offset) {
+                throw new OpenSearchCorruptionException(
+                    "invalid length [" + length + "] for frame [" + i + "] at offset [" + (offset - FRAME_HEADER_SIZE) + "]"
+                );
+            }
+            payloads[i] = frames.slice(offset, length);
+            offset += length;
+        }
+        if (offset != frames.length()) {
+            throw new OpenSearchCorruptionException("found [" + (frames.length() - offset) + "] trailing bytes after the last frame");
+        }
+
+        final AbstractIndexMetadata<?>[] indices;
+        if (frameCount < PARALLEL_THRESHOLD) {
+            indices = new AbstractIndexMetadata<?>[frameCount];
+            for (int i = 0; i < frameCount; i++) {
+                indices[i] = decodeFrame(i, payloads[i], checksums[i], version, in);
+            }
+        } else {
+            indices = invoke(() -> IntStream.range(0, frameCount).parallel().mapToObj(i -> {
+                try {
+                    return decodeFrame(i, payloads[i], checksums[i], version, in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).toArray(AbstractIndexMetadata<?>[]::new));
+        }
+        return Collections.unmodifiableList(Arrays.asList(indices));
+    }
+
+    /**
+     * Encodes a frame with the given version and, if the frames are written to a stream, with the tables enabled on that stream.
+     */
+    private static BytesReference encodeFrame(AbstractIndexMetadata<?> indexMetadata, Version version, @Nullable StreamOutput out)
+        throws IOException {
+        final BytesReference payload;
+        try (BytesStreamOutput frameOut = new BytesStreamOutput()) {
+            frameOut.setVersion(version);
+            if (out != null) {
+                out.enableSameTablesOn(frameOut);
+            }
+            indexMetadata.writeTo(frameOut);
+            payload = frameOut.bytes();
+        }
+        final byte[] header = new byte[FRAME_HEADER_SIZE];
+        writeInt(header, 0, payload.length());
+        writeInt(header, Integer.BYTES, checksum(payload));
+        return CompositeBytesReference.of(new BytesArray(header), payload);
+    }
+
+    /**
+     * Decodes a frame with the given version and, if the frames are read from a stream, with the tables enabled on that stream and its
+     * {@link NamedWriteableRegistry}, so that named writeables within the frame can be read.
+     */
+    private static AbstractIndexMetadata<?> decodeFrame(
+        int frame,
+        BytesReference payload,
+        int expectedChecksum,
+        Version version,
+        @Nullable StreamInput in
+    ) throws IOException {
+        final int actualChecksum = checksum(payload);
+        if (actualChecksum != expectedChecksum) {
+            throw new OpenSearchCorruptionException(
+                "checksum mismatch for frame ["
+                    + frame
+                    + "]: expected ["
+                    + Integer.toHexString(expectedChecksum)
+                    + "] but was ["
+                    + Integer.toHexString(actualChecksum)
+                    + "]"
+            );
+        }
+        final NamedWriteableRegistry registry = in == null ? null : in.namedWriteableRegistry();
+        try (
+            StreamInput frameIn = registry == null
+                ? payload.streamInput()
+                : new NamedWriteableAwareStreamInput(payload.streamInput(), registry)
+        ) {
+            frameIn.setVersion(version);
+            if (in != null) {
+                in.enableSameTablesOn(frameIn);
+            }
+            final AbstractIndexMetadata<?> indexMetadata = AbstractIndexMetadata.readFrom(frameIn);
+            if (frameIn.available() != 0) {
+                throw new OpenSearchCorruptionException("found [" + frameIn.available() + "] unread bytes in frame [" + frame + "]");
+            }
+            return indexMetadata;
+        }
+    }
+
+    private static int checksum(BytesReference bytes) throws IOException {
+        final CRC32 crc32 = new CRC32();
+        final BytesRefIterator iterator = bytes.iterator();
+        BytesRef ref;
+        while ((ref = iterator.next()) != null) {
+            crc32.update(ref.bytes, ref.offset, ref.length);
+        }
+        return (int) crc32.getValue();
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >> 24);
+        bytes[offset + 1] = (byte) (value >> 16);
+        bytes[offset + 2] = (byte) (value >> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private <R> R invoke(Callable<R> task) throws IOException {
+        try {
+            // parallel streams run their subtasks in the pool the stream is started from
+            return pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while processing frames", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -40,6 +40,7 @@ import org.opensearch.common.settings.Settings;
 import org.opensearch.core.common.io.stream.BufferedChecksumStreamOutput;
 import org.opensearch.core.common.io.stream.StreamInput;
 import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.VerifiableChecksums;
 import org.opensearch.core.common.io.stream.VerifiableWriteable;
 import org.opensearch.core.common.transport.TransportAddress;
 import org.opensearch.core.xcontent.ToXContentFragment;
@@ -47,15 +48,19 @@ import org.opensearch.core.xcontent.XContentBuilder;
 import org.opensearch.node.NodeSettings;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -140,6 +145,27 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
     private final Map<String, String> attributes;
     private final Version version;
     private final SortedSet<DiscoveryNodeRole> roles;
+    private final int flags;
+    private final VerifiableChecksums.Cache checksumCache = new VerifiableChecksums.Cache();
+
+    // bits of the flags field, derived once from the immutable roles and attributes of the node
+    private static final int DATA_NODE = 1;
+    private static final int CLUSTER_MANAGER_NODE = 1 << 1;
+    private static final int INGEST_NODE = 1 << 2;
+    private static final int REMOTE_CLUSTER_CLIENT = 1 << 3;
+    private static final int WARM_NODE = 1 << 4;
+    private static final int SEARCH_NODE = 1 << 5;
+    private static final int REMOTE_STORE_NODE = 1 << 6;
+    private static final int REMOTE_SEGMENT_STORE_NODE = 1 << 7;
+    private static final int REMOTE_STATE_PUBLICATION = 1 << 8;
+
+    /**
+     * Role sets built only from registered roles are shared between all the nodes that have the same roles, together with their flags,
+     * since a cluster usually has only a handful of distinct role combinations. The table is bounded so that unusual clusters don't
+     * grow it without limit, in which case role sets are simply no longer shared.
+     */
+    private static final int MAX_CANONICAL_ROLE_SETS = 256;
+    private static final Map<List<DiscoveryNodeRole>, CanonicalRoles> CANONICAL_ROLES = new ConcurrentHashMap<>();
 
     /**
      * Creates a new {@link DiscoveryNode}
@@ -291,7 +317,9 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
             return success;
         };
         assert predicate.test(attributes) : attributes;
-        this.roles = Collections.unmodifiableSortedSet(new TreeSet<>(roles));
+        final CanonicalRoles canonicalRoles = canonicalRoles(new ArrayList<>(roles));
+        this.roles = canonicalRoles.roles;
+        this.flags = canonicalRoles.flags | attributeFlags(this.attributes);
     }
 
     public DiscoveryNode(DiscoveryNode node, TransportAddress streamAddress) {
@@ -365,7 +393,7 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
         }
 
         int rolesSize = in.readVInt();
-        final Set<DiscoveryNodeRole> roles = new HashSet<>(rolesSize);
+        final List<DiscoveryNodeRole> roles = new ArrayList<>(rolesSize);
         for (int i = 0; i < rolesSize; i++) {
             final String roleName = in.readString();
             final String roleNameAbbreviation = in.readString();
@@ -387,7 +415,9 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
                 roles.add(role);
             }
         }
-        this.roles = Collections.unmodifiableSortedSet(new TreeSet<>(roles));
+        final CanonicalRoles canonicalRoles = canonicalRoles(roles);
+        this.roles = canonicalRoles.roles;
+        this.flags = canonicalRoles.flags | attributeFlags(this.attributes);
         this.version = in.readVersion();
     }
 
@@ -428,6 +458,15 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
         writeRolesAndVersion(out);
     }
 
+    /**
+     * Returns the checksum of {@link #writeVerifiableTo(BufferedChecksumStreamOutput)}, computed once per version as nodes are
+     * immutable.
+     */
+    @Override
+    public long getChecksum(Version version) throws IOException {
+        return checksumCache.get(this, version);
+    }
+
     private void writeNodeDetails(StreamOutput out) throws IOException {
         out.writeString(nodeName);
         out.writeString(nodeId);
@@ -498,21 +537,21 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
      * Should this node hold data (shards) or not.
      */
     public boolean isDataNode() {
-        return roles.stream().anyMatch(DiscoveryNodeRole::canContainData);
+        return (flags & DATA_NODE) != 0;
     }
 
     /**
      * Can this node become cluster-manager or not.
      */
     public boolean isClusterManagerNode() {
-        return roles.contains(DiscoveryNodeRole.MASTER_ROLE) || roles.contains(DiscoveryNodeRole.CLUSTER_MANAGER_ROLE);
+        return (flags & CLUSTER_MANAGER_NODE) != 0;
     }
 
     /**
      * Returns a boolean that tells whether this an ingest node or not
      */
     public boolean isIngestNode() {
-        return roles.contains(DiscoveryNodeRole.INGEST_ROLE);
+        return (flags & INGEST_NODE) != 0;
     }
 
     /**
@@ -521,7 +560,7 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
      * @return true if the node can be a remote cluster client, false otherwise
      */
     public boolean isRemoteClusterClient() {
-        return roles.contains(DiscoveryNodeRole.REMOTE_CLUSTER_CLIENT_ROLE);
+        return (flags & REMOTE_CLUSTER_CLIENT) != 0;
     }
 
     /**
@@ -530,7 +569,7 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
      * @return true if the node contains warm role, false otherwise
      */
     public boolean isWarmNode() {
-        return roles.contains(DiscoveryNodeRole.WARM_ROLE);
+        return (flags & WARM_NODE) != 0;
     }
 
     /**
@@ -539,7 +578,7 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
      * @return true if the node contains a search role, false otherwise
      */
     public boolean isSearchNode() {
-        return roles.contains(DiscoveryNodeRole.SEARCH_ROLE);
+        return (flags & SEARCH_NODE) != 0;
     }
 
     /**
@@ -548,7 +587,7 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
      * @return true if the node contains remote store node attributes, false otherwise
      */
     public boolean isRemoteStoreNode() {
-        return isClusterStateRepoConfigured(this.getAttributes()) && isSegmentRepoConfigured(this.getAttributes());
+        return (flags & REMOTE_STORE_NODE) != 0;
     }
 
     /**
@@ -556,7 +595,7 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
      * @return true if the node contains remote segment store node attributes, false otherwise
      */
     public boolean isRemoteSegmentStoreNode() {
-        return isSegmentRepoConfigured(this.getAttributes());
+        return (flags & REMOTE_SEGMENT_STORE_NODE) != 0;
     }
 
     /**
@@ -564,7 +603,82 @@ public class DiscoveryNode implements VerifiableWriteable, ToXContentFragment {
      * @return true if the node contains remote cluster state node attribute and remote routing table node attribute
      */
     public boolean isRemoteStatePublicationEnabled() {
-        return isClusterStateRepoConfigured(this.getAttributes()) && isRoutingTableRepoConfigured(this.getAttributes());
+        return (flags & REMOTE_STATE_PUBLICATION) != 0;
+    }
+
+    /**
+     * Returns the sorted, unmodifiable set of the given roles along with their flags, shared with other nodes having the same roles when
+     * all of them are registered roles.
+     */
+    private static CanonicalRoles canonicalRoles(List<DiscoveryNodeRole> roles) {
+        roles.sort(null);
+        final Map<String, DiscoveryNodeRole> knownRoles = roleMap;
+        for (DiscoveryNodeRole role : roles) {
+            if (knownRoles.get(role.roleName()) != role) {
+                return new CanonicalRoles(roles);
+            }
+        }
+        CanonicalRoles canonical = CANONICAL_ROLES.get(roles);
+        if (canonical == null) {
+            canonical = new CanonicalRoles(roles);
+            if (CANONICAL_ROLES.size() < MAX_CANONICAL_ROLE_SETS) {
+                final CanonicalRoles existing = CANONICAL_ROLES.putIfAbsent(List.copyOf(roles), canonical);
+                if (existing != null) {
+                    canonical = existing;
+                }
+            }
+        }
+        return canonical;
+    }
+
+    private static int attributeFlags(Map<String, String> attributes) {
+        final boolean clusterStateRepo = isClusterStateRepoConfigured(attributes);
+        final boolean segmentRepo = isSegmentRepoConfigured(attributes);
+        int flags = 0;
+        if (clusterStateRepo && segmentRepo) {
+            flags |= REMOTE_STORE_NODE;
+        }
+        if (segmentRepo) {
+            flags |= REMOTE_SEGMENT_STORE_NODE;
+        }
+        if (clusterStateRepo && isRoutingTableRepoConfigured(attributes)) {
+            flags |= REMOTE_STATE_PUBLICATION;
+        }
+        return flags;
+    }
+
+    /**
+     * An immutable sorted role set and the role flags derived from it.
+     */
+    private static final class CanonicalRoles {
+        private final SortedSet<DiscoveryNodeRole> roles;
+        private final int flags;
+
+        private CanonicalRoles(Collection<DiscoveryNodeRole> roles) {
+            this.roles = Collections.unmodifiableSortedSet(new TreeSet<>(roles));
+            int flags = 0;
+            for (DiscoveryNodeRole role : this.roles) {
+                if (role.canContainData()) {
+                    flags |= DATA_NODE;
+                }
+            }
+            if (this.roles.contains(DiscoveryNodeRole.MASTER_ROLE) || this.roles.contains(DiscoveryNodeRole.CLUSTER_MANAGER_ROLE)) {
+                flags |= CLUSTER_MANAGER_NODE;
+            }
+            if (this.roles.contains(DiscoveryNodeRole.INGEST_ROLE)) {
+                flags |= INGEST_NODE;
+            }
+            if (this.roles.contains(DiscoveryNodeRole.REMOTE_CLUSTER_CLIENT_ROLE)) {
+                flags |= REMOTE_CLUSTER_CLIENT;
+            }
+            if (this.roles.contains(DiscoveryNodeRole.WARM_ROLE)) {
+                flags |= WARM_NODE;
+            }
+            if (this.roles.contains(DiscoveryNodeRole.SEARCH_ROLE)) {
+                flags |= SEARCH_NODE;
+            }
+            this.flags = flags;
+        }
     }
 
     /**
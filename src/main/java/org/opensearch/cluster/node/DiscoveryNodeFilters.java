@@ -34,14 +34,17 @@ package org.opensearch.cluster.node;
 
 import org.opensearch.common.Nullable;
 import org.opensearch.common.annotation.PublicApi;
-import org.opensearch.common.network.InetAddresses;
+import org.opensearch.common.network.IpPrefixTrie;
 import org.opensearch.common.network.NetworkAddress;
 import org.opensearch.common.regex.Regex;
 import org.opensearch.common.settings.Settings;
 import org.opensearch.core.common.Strings;
 import org.opensearch.core.common.transport.TransportAddress;
 
+import java.net.InetAddress;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
@@ -68,13 +71,13 @@ public class DiscoveryNodeFilters {
     /**
      * Validates the IP addresses in a group of {@link Settings} by looking for the keys
      * "_ip", "_host_ip", and "_publish_ip" and ensuring each of their comma separated values
-     * that has no wildcards is a valid IP address.
+     * that has no wildcards is a valid IP address or CIDR range.
      */
     public static final BiConsumer<String, String> IP_VALIDATOR = (propertyKey, rawValue) -> {
         if (rawValue != null) {
             if (propertyKey.endsWith("._ip") || propertyKey.endsWith("._host_ip") || propertyKey.endsWith("_publish_ip")) {
                 for (String value : Strings.tokenizeToStringArray(rawValue, ",")) {
-                    if (Regex.isSimpleMatchPattern(value) == false && InetAddresses.isInetAddress(value) == false) {
+                    if (Regex.isSimpleMatchPattern(value) == false && IpPrefixTrie.isAddressOrCidr(value) == false) {
                         throw new IllegalArgumentException("invalid IP address [" + value + "] for [" + propertyKey + "]");
                     }
                 }
@@ -92,40 +95,88 @@ public class DiscoveryNodeFilters {
         final OpType opType,
         final Map<String, String> filters
     ) {
-        final DiscoveryNodeFilters updated;
+        final OpType updatedOpType;
+        final Map<String, String[]> updatedFilters;
         if (original == null) {
-            updated = new DiscoveryNodeFilters(opType, new HashMap<>());
+            updatedOpType = opType;
+            updatedFilters = new HashMap<>();
         } else {
             assert opType == original.opType : "operation type should match with node filter parameter";
-            updated = new DiscoveryNodeFilters(original.opType, original.filters);
+            updatedOpType = original.opType;
+            // copied since the IP filters of the original are built from its values
+            updatedFilters = new HashMap<>(original.filters);
         }
         for (Map.Entry<String, String> entry : filters.entrySet()) {
             String[] values = Strings.tokenizeToStringArray(entry.getValue(), ",");
-            updated.filters.compute(entry.getKey(), (k, v) -> values.length > 0 ? values : null);
+            updatedFilters.compute(entry.getKey(), (k, v) -> values.length > 0 ? values : null);
         }
-        if (updated.filters.isEmpty()) {
+        if (updatedFilters.isEmpty()) {
             return null;
         }
-        return updated;
+        return new DiscoveryNodeFilters(updatedOpType, updatedFilters);
     }
 
     private final Map<String, String[]> filters;
 
     private final OpType opType;
 
+    private final Map<String, IpFilter> ipFilters;
+
     DiscoveryNodeFilters(OpType opType, Map<String, String[]> filters) {
         this.opType = opType;
         this.filters = filters;
+        this.ipFilters = new HashMap<>();
+        for (Map.Entry<String, String[]> entry : filters.entrySet()) {
+            final String attr = entry.getKey();
+            if ("_ip".equals(attr) || "_host_ip".equals(attr) || "_publish_ip".equals(attr)) {
+                ipFilters.put(attr, new IpFilter(entry.getValue()));
+            }
+        }
     }
 
-    private boolean matchByIP(String[] values, @Nullable String hostIp, @Nullable String publishIp) {
-        for (String value : values) {
-            boolean matchIp = Regex.simpleMatch(value, hostIp) || Regex.simpleMatch(value, publishIp);
-            if (matchIp) {
-                return matchIp;
+    /**
+     * The values of an IP filter. Exact addresses and CIDR ranges are looked up in a prefix trie with the raw bytes of the node
+     * addresses, any other value, such as a wildcard pattern, is matched against the address strings.
+     */
+    private static final class IpFilter {
+
+        private final IpPrefixTrie prefixes;
+        private final String[] patterns;
+
+        IpFilter(String[] values) {
+            final IpPrefixTrie.Builder builder = IpPrefixTrie.builder();
+            final List<String> patterns = new ArrayList<>();
+            for (String value : values) {
+                if (Regex.isSimpleMatchPattern(value) == false && IpPrefixTrie.isAddressOrCidr(value)) {
+                    builder.add(value);
+                } else {
+                    patterns.add(value);
+                }
             }
+            this.prefixes = builder.build();
+            this.patterns = patterns.toArray(new String[0]);
+        }
+
+        boolean matchHostIp(@Nullable String hostIp) {
+            return hostIp != null && (prefixes.containsAddress(hostIp) || matchPatterns(hostIp));
+        }
+
+        boolean matchPublishIp(@Nullable TransportAddress publishAddress) {
+            if (publishAddress == null) {
+                return false;
+            }
+            final InetAddress address = publishAddress.address().getAddress();
+            return prefixes.contains(address.getAddress()) || (patterns.length > 0 && matchPatterns(NetworkAddress.format(address)));
+        }
+
+        private boolean matchPatterns(String ip) {
+            for (String pattern : patterns) {
+                if (Regex.simpleMatch(pattern, ip)) {
+                    return true;
+                }
+            }
+            return false;
         }
-        return false;
     }
 
     /**
@@ -161,12 +212,8 @@ public class DiscoveryNodeFilters {
             String[] values = entry.getValue();
             if ("_ip".equals(attr)) {
                 // We check both the host_ip or the publish_ip
-                String publishAddress = null;
-                if (node.getAddress() instanceof TransportAddress) {
-                    publishAddress = NetworkAddress.format(node.getAddress().address().getAddress());
-                }
-
-                boolean match = matchByIP(values, node.getHostAddress(), publishAddress);
+                final IpFilter ipFilter = ipFilters.get(attr);
+                boolean match = ipFilter.matchHostIp(node.getHostAddress()) || ipFilter.matchPublishIp(node.getAddress());
 
                 if (opType == OpType.AND) {
                     if (match) {
@@ -181,7 +228,7 @@ public class DiscoveryNodeFilters {
                 }
             } else if ("_host_ip".equals(attr)) {
                 // We check explicitly only the host_ip
-                boolean match = matchByIP(values, node.getHostAddress(), null);
+                boolean match = ipFilters.get(attr).matchHostIp(node.getHostAddress());
                 if (opType == OpType.AND) {
                     if (match) {
                         // If we match, we can check to the next filter
@@ -195,12 +242,7 @@ public class DiscoveryNodeFilters {
                 }
             } else if ("_publish_ip".equals(attr)) {
                 // We check explicitly only the publish_ip
-                String address = null;
-                if (node.getAddress() instanceof TransportAddress) {
-                    address = NetworkAddress.format(node.getAddress().address().getAddress());
-                }
-
-                boolean match = matchByIP(values, address, null);
+                boolean match = ipFilters.get(attr).matchPublishIp(node.getAddress());
                 if (opType == OpType.AND) {
                     if (match) {
                         // If we match, we can check to the next filter
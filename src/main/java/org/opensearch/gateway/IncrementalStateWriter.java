@@ -0,0 +1,199 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.gateway;
+
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Persists a collection of versioned entries, such as the metadata of every index, with a {@link MetadataStateFormat}. Every entry is kept
+ * in its own sub-directory, named after the id of the entry, and a new generation of an entry is only written when its version differs
+ * from the version that was last written or loaded, so that persisting a large collection only costs the entries that changed.
+ * <p>
+ * The generation of every entry that is part of the collection is recorded in a manifest, which is written last, as a generation of
+ * {@code manifest-<generation>.st} files in the base directory. Writing the manifest is the commit point of the whole collection: entry
+ * generations that no manifest names yet are ignored by {@link #load(NamedXContentRegistry)}, and the older generations of the entries as
+ * well as the directories of the entries that were removed are only deleted once the new manifest is durable. A crash therefore leaves
+ * either the previous or the new collection behind, never a mix of the two.
+ * <p>
+ * The ids of the entries are used as directory names and must therefore be safe file names, for instance index UUIDs.
+ *
+ * @opensearch.internal
+ */
+public final class IncrementalStateWriter<T> {
+
+    static final String MANIFEST_PREFIX = "manifest-";
+
+    private static final String ENTRIES_FIELD = "entries";
+
+    /**
+     * The manifest, which maps the id of every entry of the collection to its current generation.
+     */
+    static final MetadataStateFormat<Map<String, Long>> MANIFEST_FORMAT = new MetadataStateFormat<Map<String, Long>>(MANIFEST_PREFIX) {
+        @Override
+        public void toXContent(XContentBuilder builder, Map<String, Long> generations) throws IOException {
+            builder.startObject(ENTRIES_FIELD);
+            for (Map.Entry<String, Long> entry : new TreeMap<>(generations).entrySet()) {
+                builder.field(entry.getKey(), entry.getValue().longValue());
+            }
+            builder.endObject();
+        }
+
+        @Override
+        public Map<String, Long> fromXContent(XContentParser parser) throws IOException {
+            if (parser.nextToken() != XContentParser.Token.START_OBJECT) {
+                throw new IllegalArgumentException("expected an object but got [" + parser.currentToken() + "]");
+            }
+            final Map<String, Long> generations = new HashMap<>();
+            while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+                final String fieldName = parser.currentName();
+                final XContentParser.Token token = parser.nextToken();
+                if (ENTRIES_FIELD.equals(fieldName) && token == XContentParser.Token.START_OBJECT) {
+                    while (parser.nextToken() == XContentParser.Token.FIELD_NAME) {
+                        final String id = parser.currentName();
+                        parser.nextToken();
+                        generations.put(id, parser.longValue());
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return generations;
+        }
+    };
+
+    private final MetadataStateFormat<T> format;
+    private final Path baseDirectory;
+    private final Function<T, String> idFunction;
+    private final ToLongFunction<T> versionFunction;
+    // the entries named by the latest manifest that was written or loaded, by id
+    private final Map<String, WrittenEntry> writtenEntries = new HashMap<>();
+
+    public IncrementalStateWriter(
+        MetadataStateFormat<T> format,
+        Path baseDirectory,
+        Function<T, String> idFunction,
+        ToLongFunction<T> versionFunction
+    ) {
+        this.format = format;
+        this.baseDirectory = baseDirectory;
+        this.idFunction = idFunction;
+        this.versionFunction = versionFunction;
+    }
+
+    /**
+     * Loads the entries named by the latest manifest below the base directory, at the generation the manifest names, and remembers
+     * their versions, so that entries that didn't change since are not written again. Entry directories and generations that the
+     * manifest doesn't name are left over by a write that didn't complete and are ignored.
+     *
+     * @return the loaded entries by id
+     * @throws IOException if a generation named by the manifest can't be read
+     */
+    public synchronized Map<String, T> load(NamedXContentRegistry namedXContentRegistry) throws IOException {
+        final Map<String, T> entries = new HashMap<>();
+        writtenEntries.clear();
+        if (Files.isDirectory(baseDirectory) == false) {
+            return entries;
+        }
+        final Map<String, Long> generations = MANIFEST_FORMAT.loadLatestState(namedXContentRegistry, baseDirectory);
+        if (generations == null) {
+            return entries;
+        }
+        for (Map.Entry<String, Long> generation : generations.entrySet()) {
+            final String id = generation.getKey();
+            final Path stateFile = baseDirectory.resolve(id).resolve(format.getStateFileName(generation.getValue()));
+            final T entry = format.read(namedXContentRegistry, stateFile);
+            entries.put(id, entry);
+            writtenEntries.put(id, new WrittenEntry(versionFunction.applyAsLong(entry), generation.getValue()));
+        }
+        return entries;
+    }
+
+    /**
+     * Writes a new generation of the entries whose version changed since they were last written, commits the collection by writing a
+     * new manifest, and then deletes the older generations of the written entries and the state of the entries that are no longer
+     * part of the given collection. Nothing is written if no entry was added, changed or removed.
+     *
+     * @return the number of entries that were written
+     */
+    public synchronized int write(Collection<T> entries) throws IOException {
+        final Map<String, WrittenEntry> newEntries = new HashMap<>();
+        final Map<String, Long> generations = new HashMap<>();
+        int written = 0;
+        for (T entry : entries) {
+            final String id = idFunction.apply(entry);
+            if (generations.containsKey(id)) {
+                throw new IllegalArgumentException("duplicate entry id [" + id + "]");
+            }
+            final long version = versionFunction.applyAsLong(entry);
+            WrittenEntry writtenEntry = writtenEntries.get(id);
+            if (writtenEntry == null || writtenEntry.version() != version) {
+                // older generations are still named by the current manifest and must survive until the new one is durable
+                writtenEntry = new WrittenEntry(version, format.writeGenerationKeepingOlder(entry, baseDirectory.resolve(id)));
+                written++;
+            }
+            newEntries.put(id, writtenEntry);
+            generations.put(id, writtenEntry.generation());
+        }
+        if (written == 0 && newEntries.keySet().equals(writtenEntries.keySet())) {
+            return 0;
+        }
+
+        MANIFEST_FORMAT.writeGeneration(generations, baseDirectory);
+
+        // the new collection is committed, nothing else is named by a manifest anymore
+        for (Map.Entry<String, WrittenEntry> entry : newEntries.entrySet()) {
+            if (entry.getValue().equals(writtenEntries.get(entry.getKey())) == false) {
+                format.cleanupOldFiles(baseDirectory.resolve(entry.getKey()), entry.getValue().generation());
+            }
+        }
+        writtenEntries.clear();
+        writtenEntries.putAll(newEntries);
+        deleteUnnamedEntries();
+        return written;
+    }
+
+    /**
+     * Deletes the state of the entry directories that the manifest doesn't name, either because the entry was removed from the
+     * collection or because a write that didn't complete created it.
+     */
+    private void deleteUnnamedEntries() throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(baseDirectory, Files::isDirectory)) {
+            for (Path entryDirectory : stream) {
+                if (writtenEntries.containsKey(entryDirectory.getFileName().toString()) == false) {
+                    format.cleanupState(entryDirectory);
+                    try {
+                        Files.deleteIfExists(entryDirectory);
+                    } catch (DirectoryNotEmptyException e) {
+                        // leave unrelated files alone
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The version and generation of an entry named by the manifest.
+     */
+    private record WrittenEntry(long version, long generation) {
+    }
+}
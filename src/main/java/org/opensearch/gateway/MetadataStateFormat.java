@@ -0,0 +1,458 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.gateway;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.opensearch.OpenSearchCorruptionException;
+import org.opensearch.common.util.io.IOUtils;
+import org.opensearch.common.xcontent.LoggingDeprecationHandler;
+import org.opensearch.common.xcontent.smile.SmileXContent;
+import org.opensearch.core.gateway.StateFormat;
+import org.opensearch.core.xcontent.NamedXContentRegistry;
+import org.opensearch.core.xcontent.XContentBuilder;
+import org.opensearch.core.xcontent.XContentParser;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A {@link StateFormat} that persists a state object in a directory, as a new generation of {@code <prefix><generation>.st} files.
+ * <p>
+ * Every state file starts with a header holding a magic number, the format version and the content type, followed by the state
+ * serialized with the metadata SMILE profile and a footer holding a second magic number and the CRC32C checksum of everything that
+ * precedes it. The state is streamed to a temporary file which is fsynced and then atomically renamed to its final name, so that a crash
+ * never leaves a partially written generation behind. Older generations are deleted once the new one is durable, and reading picks the
+ * latest generation whose checksum and content are valid.
+ *
+ * @opensearch.internal
+ */
+public abstract class MetadataStateFormat<T> implements StateFormat<T> {
+
+    public static final String STATE_FILE_EXTENSION = ".st";
+
+    static final String TMP_FILE_SUFFIX = ".tmp";
+
+    static final int STATE_FILE_MAGIC = 0x4f534d53;
+
+    static final int FOOTER_MAGIC = ~STATE_FILE_MAGIC;
+
+    static final int STATE_FILE_VERSION = 1;
+
+    static final byte SMILE_CONTENT = 0;
+
+    static final int HEADER_LENGTH = Integer.BYTES + Integer.BYTES + Byte.BYTES;
+
+    static final int FOOTER_LENGTH = Integer.BYTES + Long.BYTES;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final Logger logger = LogManager.getLogger(MetadataStateFormat.class);
+
+    private final String prefix;
+
+    private final Pattern stateFilePattern;
+
+    /**
+     * Creates a new {@link MetadataStateFormat} instance
+     *
+     * @param prefix the prefix of the state files, for instance {@code state-}
+     */
+    protected MetadataStateFormat(String prefix) {
+        this.prefix = prefix;
+        this.stateFilePattern = Pattern.compile(Pattern.quote(prefix) + "(\\d+)" + Pattern.quote(STATE_FILE_EXTENSION));
+    }
+
+    /**
+     * Writes the given state to the given directory as a new generation. See {@link #writeGeneration(Object, Path)}.
+     */
+    @Override
+    public void write(T state, Path stateDirectory) throws IOException {
+        writeGeneration(state, stateDirectory);
+    }
+
+    /**
+     * Writes the given state to the given directory as a new generation, one higher than any generation in the directory, and deletes
+     * the older generations once the new one is durable.
+     *
+     * @param state          the state object to write
+     * @param stateDirectory the directory holding the generations of the state, created if it doesn't exist
+     * @return the generation that was written
+     * @throws IOException if the state could not be written, in which case the previous generations are left untouched
+     */
+    public final long writeGeneration(T state, Path stateDirectory) throws IOException {
+        final long generation = writeGenerationKeepingOlder(state, stateDirectory);
+        cleanupOldFiles(stateDirectory, generation);
+        return generation;
+    }
+
+    /**
+     * Writes the given state to the given directory as a new generation, like {@link #writeGeneration(Object, Path)}, but leaves the
+     * older generations in place. This lets a caller that records which generation is current elsewhere, like
+     * {@link IncrementalStateWriter}, only delete them with {@link #cleanupOldFiles(Path, long)} once that record is durable.
+     *
+     * @return the generation that was written
+     */
+    public final long writeGenerationKeepingOlder(T state, Path stateDirectory) throws IOException {
+        Files.createDirectories(stateDirectory);
+        final long generation = findMaxGeneration(stateDirectory) + 1;
+        final String fileName = getStateFileName(generation);
+        final Path tmpStatePath = stateDirectory.resolve(fileName + TMP_FILE_SUFFIX);
+        final Path finalStatePath = stateDirectory.resolve(fileName);
+        // a write that crashed may have left a temporary file of the same generation behind
+        Files.deleteIfExists(tmpStatePath);
+        boolean success = false;
+        try {
+            writeStateFile(state, tmpStatePath);
+            Files.move(tmpStatePath, finalStatePath, StandardCopyOption.ATOMIC_MOVE);
+            IOUtils.fsync(stateDirectory, true);
+            success = true;
+        } finally {
+            if (success == false) {
+                Files.deleteIfExists(tmpStatePath);
+            }
+        }
+        return generation;
+    }
+
+    private void writeStateFile(T state, Path tmpStatePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(tmpStatePath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final BufferedOutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            final CRC32C checksum = new CRC32C();
+            final DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, checksum));
+            out.writeInt(STATE_FILE_MAGIC);
+            out.writeInt(STATE_FILE_VERSION);
+            out.writeByte(SMILE_CONTENT);
+            // the builder closes its output stream when it is closed, which must not close the channel before the footer is written
+            try (XContentBuilder builder = new XContentBuilder(SmileXContent.metadataSmileXContent, new NonClosingOutputStream(out))) {
+                builder.startObject();
+                toXContent(builder, state);
+                builder.endObject();
+            }
+            out.writeInt(FOOTER_MAGIC);
+            out.flush();
+            // the checksum covers everything but itself
+            new DataOutputStream(buffered).writeLong(checksum.getValue());
+            buffered.flush();
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Deletes the generations older than the given one, as well as the temporary files left behind by failed writes.
+     */
+    public void cleanupOldFiles(Path stateDirectory, long currentGeneration) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(stateDirectory, prefix + "*")) {
+            for (Path stateFile : stream) {
+                final String fileName = stateFile.getFileName().toString();
+                final long generation = parseGeneration(fileName);
+                if (generation >= 0 && generation < currentGeneration || fileName.endsWith(TMP_FILE_SUFFIX)) {
+                    try {
+                        Files.deleteIfExists(stateFile);
+                    } catch (IOException e) {
+                        logger.trace(() -> new ParameterizedMessage("failed to delete old state file [{}]", stateFile), e);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes all the generations of the state in the given directory.
+     */
+    public void cleanupState(Path stateDirectory) throws IOException {
+        if (Files.isDirectory(stateDirectory) == false) {
+            return;
+        }
+        cleanupOldFiles(stateDirectory, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads the latest valid generation of the state in the given directory. See {@link #loadLatestState(NamedXContentRegistry, Path)}.
+     */
+    @Override
+    public T read(Path stateDirectory) throws IOException {
+        return loadLatestState(NamedXContentRegistry.EMPTY, stateDirectory);
+    }
+
+    /**
+     * Reads the latest generation of the state in the given directory whose checksum and content are valid, skipping generations that
+     * are corrupted, for instance because the node crashed before they were deleted.
+     *
+     * @return the state, or {@code null} if the directory holds no state
+     * @throws OpenSearchCorruptionException if the directory holds state files but none of them can be read
+     */
+    public T loadLatestState(NamedXContentRegistry namedXContentRegistry, Path stateDirectory) throws IOException {
+        final List<Long> generations = listGenerations(stateDirectory);
+        generations.sort((a, b) -> Long.compare(b, a));
+        final List<Exception> failures = new ArrayList<>();
+        for (long generation : generations) {
+            final Path stateFile = stateDirectory.resolve(getStateFileName(generation));
+            try {
+                final T state = read(namedXContentRegistry, stateFile);
+                if (failures.isEmpty() == false) {
+                    logger.warn("skipped {} unreadable generation(s) of the state in [{}]", failures.size(), stateDirectory);
+                }
+                return state;
+            } catch (Exception e) {
+                logger.debug(() -> new ParameterizedMessage("failed to read state file [{}]", stateFile), e);
+                failures.add(e);
+            }
+        }
+        if (failures.isEmpty() == false) {
+            final OpenSearchCorruptionException exception = new OpenSearchCorruptionException(
+                "none of the " + failures.size() + " state file(s) in [" + stateDirectory + "] could be read"
+            );
+            failures.forEach(exception::addSuppressed);
+            throw exception;
+        }
+        return null;
+    }
+
+    /**
+     * Reads the state from the given state file, after verifying its header, footer and checksum.
+     *
+     * @throws OpenSearchCorruptionException if the file is corrupted
+     */
+    public final T read(NamedXContentRegistry namedXContentRegistry, Path stateFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(stateFile, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            verifyStateFile(channel, size, stateFile);
+            channel.position(HEADER_LENGTH);
+            final InputStream body = new LimitedInputStream(Channels.newInputStream(channel), size - HEADER_LENGTH - FOOTER_LENGTH);
+            try (XContentParser parser = SmileXContent.metadataSmileXContent.createParser(
+                namedXContentRegistry,
+                LoggingDeprecationHandler.INSTANCE,
+                new BufferedInputStream(body, BUFFER_SIZE)
+            )) {
+                return fromXContent(parser);
+            }
+        }
+    }
+
+    private static void verifyStateFile(FileChannel channel, long size, Path stateFile) throws IOException {
+        if (size < HEADER_LENGTH + FOOTER_LENGTH) {
+            throw new OpenSearchCorruptionException("state file [" + stateFile + "] is too short: [" + size + "] bytes");
+        }
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        readFully(channel, header, 0);
+        final int magic = header.getInt(0);
+        if (magic != STATE_FILE_MAGIC) {
+            throw new OpenSearchCorruptionException("state file [" + stateFile + "] has an invalid header magic [" + magic + "]");
+        }
+        final int version = header.getInt(Integer.BYTES);
+        if (version != STATE_FILE_VERSION) {
+            throw new OpenSearchCorruptionException(
+                "state file [" + stateFile + "] has format version [" + version + "] but only [" + STATE_FILE_VERSION + "] is supported"
+            );
+        }
+        final byte contentType = header.get(2 * Integer.BYTES);
+        if (contentType != SMILE_CONTENT) {
+            throw new OpenSearchCorruptionException("state file [" + stateFile + "] has an unknown content type [" + contentType + "]");
+        }
+        final ByteBuffer footer = ByteBuffer.allocate(FOOTER_LENGTH);
+        readFully(channel, footer, size - FOOTER_LENGTH);
+        final int footerMagic = footer.getInt(0);
+        if (footerMagic != FOOTER_MAGIC) {
+            throw new OpenSearchCorruptionException("state file [" + stateFile + "] has an invalid footer magic [" + footerMagic + "]");
+        }
+        final CRC32C checksum = new CRC32C();
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        final long checksummedLength = size - Long.BYTES;
+        for (long position = 0; position < checksummedLength;) {
+            buffer.clear();
+            buffer.limit((int) Math.min(BUFFER_SIZE, checksummedLength - position));
+            readFully(channel, buffer, position);
+            buffer.flip();
+            position += buffer.remaining();
+            checksum.update(buffer);
+        }
+        final long expected = footer.getLong(Integer.BYTES);
+        if (checksum.getValue() != expected) {
+            throw new OpenSearchCorruptionException(
+                "state file ["
+                    + stateFile
+                    + "] checksum mismatch: expected ["
+                    + Long.toHexString(expected)
+                    + "] but was ["
+                    + Long.toHexString(checksum.getValue())
+                    + "]"
+            );
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("unexpected end of file at position [" + position + "]");
+            }
+            position += read;
+        }
+    }
+
+    /**
+     * Returns the generations of the state that are present in the given directory, in no particular order.
+     */
+    List<Long> listGenerations(Path stateDirectory) throws IOException {
+        final List<Long> generations = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(stateDirectory, prefix + "*" + STATE_FILE_EXTENSION)) {
+            for (Path stateFile : stream) {
+                final long generation = parseGeneration(stateFile.getFileName().toString());
+                if (generation >= 0) {
+                    generations.add(generation);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // no state yet
+        }
+        return generations;
+    }
+
+    private long findMaxGeneration(Path stateDirectory) throws IOException {
+        long maxGeneration = -1;
+        for (long generation : listGenerations(stateDirectory)) {
+            maxGeneration = Math.max(maxGeneration, generation);
+        }
+        return maxGeneration;
+    }
+
+    private long parseGeneration(String fileName) {
+        final Matcher matcher = stateFilePattern.matcher(fileName);
+        if (matcher.matches()) {
+            return Long.parseLong(matcher.group(1));
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the name of the state file of the given generation.
+     */
+    public String getStateFileName(long generation) {
+        return prefix + generation + STATE_FILE_EXTENSION;
+    }
+
+    /**
+     * Writes the given state to the given XContentBuilder, inside of an object that is started and ended by the caller.
+     */
+    public abstract void toXContent(XContentBuilder builder, T state) throws IOException;
+
+    /**
+     * Reads a new instance of the state from the given XContentParser.
+     */
+    public abstract T fromXContent(XContentParser parser) throws IOException;
+
+    /**
+     * Forwards everything to the wrapped stream but only flushes it on close.
+     */
+    private static final class NonClosingOutputStream extends OutputStream {
+
+        private final OutputStream delegate;
+
+        private NonClosingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+        }
+    }
+
+    /**
+     * Stops reading the wrapped stream after the given number of bytes.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private long remaining;
+
+        private LimitedInputStream(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int read = super.read();
+            if (read >= 0) {
+                remaining--;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            final int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), remaining);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
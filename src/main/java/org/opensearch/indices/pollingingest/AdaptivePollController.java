@@ -0,0 +1,329 @@
+/*
+ * SPDX-License-Identifier: Apache-2.0
+ *
+ * The OpenSearch Contributors require contributions made to
+ * this file be licensed under the Apache-2.0 license or a
+ * compatible open source license.
+ */
+
+package org.opensearch.indices.pollingingest;
+
+import org.opensearch.cluster.metadata.IngestionSource;
+import org.opensearch.common.ExponentiallyWeightedMovingAverage;
+import org.opensearch.common.annotation.ExperimentalApi;
+import org.opensearch.core.common.io.stream.StreamInput;
+import org.opensearch.core.common.io.stream.StreamOutput;
+import org.opensearch.core.common.io.stream.Writeable;
+import org.opensearch.core.xcontent.ToXContentFragment;
+import org.opensearch.core.xcontent.XContentBuilder;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Adapts the effective poll batch size and processor queue depth of a pull-based ingestion stream to the observed traffic, between the
+ * bounds configured on its {@link IngestionSource}.
+ * <p>
+ * The poller reports every poll with {@link #onPoll(long)} and the processor threads report every processed batch with
+ * {@link #onProcessed(long, long)}. Both feed {@link ExponentiallyWeightedMovingAverage}s of the batch fill ratio, the poll throughput and
+ * the per-message processing latency. The poll throughput is the intake rate, the messages of a poll over the wall-clock time since the
+ * previous poll, rather than the rate of the poll call itself, which is much higher for polls that return buffered messages.
+ * Every {@link #ADJUSTMENT_INTERVAL} polls the controller takes one of the {@link Decision}s:
+ * <ul>
+ *     <li>{@link Decision#BACKPRESSURE} when the poll throughput exceeds what the processor threads can handle: the batch size and the
+ *     queue depth shrink so that the poller blocks sooner instead of buffering messages,</li>
+ *     <li>{@link Decision#GROW} when polls keep returning full batches: the batch size doubles,</li>
+ *     <li>{@link Decision#SHRINK} when polls return mostly empty batches: the batch size shrinks to the observed fill,</li>
+ *     <li>{@link Decision#HOLD} otherwise.</li>
+ * </ul>
+ * The queue depth follows the batch size so that every processor thread can buffer {@link #QUEUED_BATCHES} batches.
+ * <p>
+ * The controller starts at the configured maximum batch size and queue depth, that is at the static configuration.
+ *
+ * @opensearch.experimental
+ */
+@ExperimentalApi
+public class AdaptivePollController {
+
+    /**
+     * Number of polls between two decisions, so that the moving averages reflect the effect of the previous decision.
+     */
+    public static final int ADJUSTMENT_INTERVAL = 5;
+
+    /**
+     * Average fill ratio above which the batch size grows.
+     */
+    static final double GROW_FILL_RATIO = 0.9;
+
+    /**
+     * Average fill ratio below which the batch size shrinks.
+     */
+    static final double SHRINK_FILL_RATIO = 0.5;
+
+    /**
+     * Fill ratio targeted when shrinking the batch size.
+     */
+    static final double TARGET_FILL_RATIO = 0.7;
+
+    /**
+     * Number of batches every processor thread can buffer.
+     */
+    static final int QUEUED_BATCHES = 2;
+
+    private static final double ALPHA = 0.3;
+
+    private final long minBatchSize;
+    private final long maxBatchSize;
+    private final int minQueueDepth;
+    private final int maxQueueDepth;
+    private final int numProcessorThreads;
+    private final LongSupplier relativeTimeInNanos;
+
+    private final ExponentiallyWeightedMovingAverage fillRatio = new ExponentiallyWeightedMovingAverage(ALPHA, 1.0);
+    private final ExponentiallyWeightedMovingAverage pollThroughput = new ExponentiallyWeightedMovingAverage(ALPHA, 0.0);
+    private final ExponentiallyWeightedMovingAverage processingLatency = new ExponentiallyWeightedMovingAverage(ALPHA, 0.0);
+
+    private volatile long batchSize;
+    private volatile int queueDepth;
+    private volatile boolean processed;
+
+    // guarded by this
+    private boolean polled;
+    private long lastPollNanos;
+    private int pollsSinceDecision;
+    private Decision lastDecision = Decision.HOLD;
+    private long grows;
+    private long shrinks;
+    private long backpressures;
+
+    /**
+     * Creates a controller adapting the batch size and queue depth between the given bounds.
+     */
+    public AdaptivePollController(long minBatchSize, long maxBatchSize, int minQueueDepth, int maxQueueDepth, int numProcessorThreads) {
+        this(minBatchSize, maxBatchSize, minQueueDepth, maxQueueDepth, numProcessorThreads, System::nanoTime);
+    }
+
+    AdaptivePollController(
+        long minBatchSize,
+        long maxBatchSize,
+        int minQueueDepth,
+        int maxQueueDepth,
+        int numProcessorThreads,
+        LongSupplier relativeTimeInNanos
+    ) {
+        if (minBatchSize < 1 || minBatchSize > maxBatchSize) {
+            throw new IllegalArgumentException(
+                "batch size bounds must satisfy 1 <= min <= max but were [" + minBatchSize + "] and [" + maxBatchSize + "]"
+            );
+        }
+        if (minQueueDepth < 1 || minQueueDepth > maxQueueDepth) {
+            throw new IllegalArgumentException(
+                "queue depth bounds must satisfy 1 <= min <= max but were [" + minQueueDepth + "] and [" + maxQueueDepth + "]"
+            );
+        }
+        if (numProcessorThreads < 1) {
+            throw new IllegalArgumentException("number of processor threads must be positive but was [" + numProcessorThreads + "]");
+        }
+        this.minBatchSize = minBatchSize;
+        this.maxBatchSize = maxBatchSize;
+        this.minQueueDepth = minQueueDepth;
+        this.maxQueueDepth = maxQueueDepth;
+        this.numProcessorThreads = numProcessorThreads;
+        this.relativeTimeInNanos = relativeTimeInNanos;
+        this.batchSize = maxBatchSize;
+        this.queueDepth = maxQueueDepth;
+    }
+
+    /**
+     * Creates a controller bounded by the {@link IngestionSource#getMaxPollSize() max poll size} and the
+     * {@link IngestionSource#getBlockingQueueSize() queue size} of the given source.
+     */
+    public static AdaptivePollController fromIngestionSource(IngestionSource ingestionSource) {
+        return new AdaptivePollController(
+            1,
+            ingestionSource.getMaxPollSize(),
+            1,
+            ingestionSource.getBlockingQueueSize(),
+            ingestionSource.getNumProcessorThreads()
+        );
+    }
+
+    /**
+     * The number of messages to request from the next poll.
+     */
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * The number of messages every processor thread should buffer.
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Records a poll that returned {@code messages} messages, and adjusts the batch size and queue depth if due. Called by the poller
+     * thread once the poll returned.
+     */
+    public synchronized void onPoll(long messages) {
+        fillRatio.addValue(Math.min(1.0, (double) messages / batchSize));
+        final long now = relativeTimeInNanos.getAsLong();
+        if (polled) {
+            pollThroughput.addValue((double) messages * TimeUnit.SECONDS.toNanos(1) / Math.max(1L, now - lastPollNanos));
+        }
+        polled = true;
+        lastPollNanos = now;
+        if (++pollsSinceDecision >= ADJUSTMENT_INTERVAL) {
+            pollsSinceDecision = 0;
+            adjust();
+        }
+    }
+
+    /**
+     * Records that a processor thread processed {@code messages} messages in {@code tookInNanos}. Called by the processor threads.
+     */
+    public void onProcessed(long messages, long tookInNanos) {
+        if (messages > 0) {
+            processingLatency.addValue((double) tookInNanos / messages);
+            processed = true;
+        }
+    }
+
+    private void adjust() {
+        final double fill = fillRatio.getAverage();
+        long newBatchSize = batchSize;
+        final Decision decision;
+        if (processed && pollThroughput.getAverage() > processingCapacity()) {
+            decision = Decision.BACKPRESSURE;
+            newBatchSize = batchSize * 3 / 4;
+            backpressures++;
+        } else if (fill >= GROW_FILL_RATIO && batchSize < maxBatchSize) {
+            decision = Decision.GROW;
+            newBatchSize = batchSize > maxBatchSize / 2 ? maxBatchSize : batchSize * 2;
+            grows++;
+        } else if (fill < SHRINK_FILL_RATIO && batchSize > minBatchSize) {
+            decision = Decision.SHRINK;
+            newBatchSize = (long) Math.ceil(batchSize * fill / TARGET_FILL_RATIO);
+            shrinks++;
+        } else {
+            decision = Decision.HOLD;
+        }
+        lastDecision = decision;
+        batchSize = Math.max(minBatchSize, Math.min(maxBatchSize, newBatchSize));
+        final long perThread = (batchSize * QUEUED_BATCHES + numProcessorThreads - 1) / numProcessorThreads;
+        queueDepth = (int) Math.max(minQueueDepth, Math.min(maxQueueDepth, perThread));
+    }
+
+    /**
+     * The number of messages per second the processor threads can handle, based on the average processing latency.
+     */
+    private double processingCapacity() {
+        final double latency = processingLatency.getAverage();
+        if (latency <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return numProcessorThreads * TimeUnit.SECONDS.toNanos(1) / latency;
+    }
+
+    /**
+     * Returns the current decisions and the averages they were based on.
+     */
+    public synchronized Stats stats() {
+        return new Stats(
+            batchSize,
+            queueDepth,
+            fillRatio.getAverage(),
+            pollThroughput.getAverage(),
+            processingLatency.getAverage(),
+            lastDecision,
+            grows,
+            shrinks,
+            backpressures
+        );
+    }
+
+    /**
+     * A decision taken by the controller.
+     *
+     * @opensearch.experimental
+     */
+    @ExperimentalApi
+    public enum Decision {
+        HOLD,
+        GROW,
+        SHRINK,
+        BACKPRESSURE;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Stats of an {@link AdaptivePollController}.
+     *
+     * @opensearch.experimental
+     */
+    @ExperimentalApi
+    public record Stats(
+        long batchSize,
+        int queueDepth,
+        double fillRatio,
+        double pollThroughput,
+        double processingLatencyNanos,
+        Decision lastDecision,
+        long grows,
+        long shrinks,
+        long backpressures
+    ) implements Writeable, ToXContentFragment {
+
+        public Stats(StreamInput in) throws IOException {
+            this(
+                in.readVLong(),
+                in.readVInt(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readDouble(),
+                in.readEnum(Decision.class),
+                in.readVLong(),
+                in.readVLong(),
+                in.readVLong()
+            );
+        }
+
+        @Override
+        public void writeTo(StreamOutput out) throws IOException {
+            out.writeVLong(batchSize);
+            out.writeVInt(queueDepth);
+            out.writeDouble(fillRatio);
+            out.writeDouble(pollThroughput);
+            out.writeDouble(processingLatencyNanos);
+            out.writeEnum(lastDecision);
+            out.writeVLong(grows);
+            out.writeVLong(shrinks);
+            out.writeVLong(backpressures);
+        }
+
+        @Override
+        public XContentBuilder toXContent(XContentBuilder builder, Params params) throws IOException {
+            builder.startObject("adaptive_poll");
+            builder.field("batch_size", batchSize);
+            builder.field("queue_depth", queueDepth);
+            builder.field("fill_ratio", fillRatio);
+            builder.field("poll_throughput_per_sec", pollThroughput);
+            builder.field("processing_latency_nanos", processingLatencyNanos);
+            builder.field("last_decision", lastDecision.toString());
+            builder.startObject("decisions");
+            builder.field("grow", grows);
+            builder.field("shrink", shrinks);
+            builder.field("backpressure", backpressures);
+            builder.endObject();
+            builder.endObject();
+            return builder;
+        }
+    }
+}